@@ -0,0 +1,85 @@
+package com.leeheefull.benchmark;
+
+import com.leeheefull.Application;
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+
+/**
+ * <p>벤치마크 공통 상태</p>
+ * <p>in-memory H2로 애플리케이션을 띄우고 memberCount 만큼 회원을 JDBC batch로 적재함.</p>
+ * <p>회원은 10개 팀에 고르게 나뉘고 나이는 0 ~ 99 사이로 분포함.</p>
+ */
+@State(Scope.Benchmark)
+public class MemberBenchmarkState {
+
+    public static final int TEAM_COUNT = 10;
+
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int memberCount;
+
+    public ConfigurableApplicationContext context;
+
+    /**
+     * 팀 하나, 나이 10 ~ 19 -> 전체의 약 1% 조회
+     */
+    public MemberSearchCondition condition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .run("--spring.profiles.active=bench",
+                        "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--logging.level.org.hibernate.SQL=warn",
+                        "--logging.level.org.hibernate.type=warn");
+        seed(context.getBean(JdbcTemplate.class));
+        condition = new MemberSearchCondition(null, "team0", 10, 19);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        var teams = new ArrayList<Object[]>();
+        for (long i = 0; i < TEAM_COUNT; i++) {
+            teams.add(new Object[]{i + 1, "team" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into team (team_id, name) values (?, ?)", teams);
+
+        var rows = new ArrayList<Object[]>(BATCH_SIZE);
+        for (long i = 0; i < memberCount; i++) {
+            rows.add(new Object[]{TEAM_COUNT + i + 1, "member" + i, (int) (i % 100), i % TEAM_COUNT + 1});
+            if (rows.size() == BATCH_SIZE) {
+                insertMembers(jdbcTemplate, rows);
+                rows.clear();
+            }
+        }
+        insertMembers(jdbcTemplate, rows);
+    }
+
+    private void insertMembers(JdbcTemplate jdbcTemplate, ArrayList<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", rows);
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.leeheefull.benchmark;
+
+import com.leeheefull.querydsl.member.Infrastructure.MemberSearchQueryTemplates;
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import com.leeheefull.querydsl.member.dto.MemberTeamDto;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.leeheefull.querydsl.member.domain.QMember.member;
+import static com.leeheefull.querydsl.member.domain.QTeam.team;
+
+/**
+ * <p>기존 쿼리(항상 left join)와 MemberJoinPlanner가 고른 쿼리 비교</p>
+ * <ul>
+ *     <li>count, 나이 조건만: left join vs 조인 없음</li>
+ *     <li>content, 팀 조건: left join vs inner join</li>
+ * </ul>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class MemberJoinPlanBenchmark {
+
+    private final MemberSearchCondition ageOnly = new MemberSearchCondition(null, null, 10, 19);
+
+    private JPAQueryFactory queryFactory;
+
+    private MemberSearchQueryTemplates queryTemplates;
+
+    private TransactionTemplate readOnlyTx;
+
+    @Setup
+    public void setUp(MemberBenchmarkState state) {
+        queryFactory = state.getBean(JPAQueryFactory.class);
+        queryTemplates = state.getBean(MemberSearchQueryTemplates.class);
+        readOnlyTx = new TransactionTemplate(state.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @Benchmark
+    public Long countLeftJoin() {
+        return readOnlyTx.execute(status -> queryFactory
+                .select(member.count())
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.age.goe(ageOnly.getAgeGoe()),
+                        member.age.loe(ageOnly.getAgeLoe()))
+                .fetchOne());
+    }
+
+    @Benchmark
+    public Long countPlanned() {
+        return readOnlyTx.execute(status -> queryTemplates.count(ageOnly));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> teamNameLeftJoin(MemberBenchmarkState state) {
+        var condition = state.condition;
+        return readOnlyTx.execute(status -> queryFactory
+                .select(member.id, member.username, member.age, team.id, team.name)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(team.name.eq(condition.getTeamName()),
+                        member.age.goe(condition.getAgeGoe()),
+                        member.age.loe(condition.getAgeLoe()))
+                .fetch()
+                .stream()
+                .map(row -> new MemberTeamDto(row.get(member.id), row.get(member.username), row.get(member.age),
+                        row.get(team.id), row.get(team.name)))
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> teamNamePlanned(MemberBenchmarkState state) {
+        return readOnlyTx.execute(status -> queryTemplates.search(state.condition));
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.leeheefull.benchmark;
+
+import com.leeheefull.querydsl.member.dto.MemberTeamDto;
+import com.leeheefull.querydsl.member.dto.QMemberTeamDto;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.leeheefull.querydsl.member.domain.QMember.member;
+import static com.leeheefull.querydsl.member.domain.QTeam.team;
+
+/**
+ * <p>MemberTeamDto 조회 방식별 비용 비교</p>
+ * <p>Projections.constructor / @QueryProjection / fields / bean, 엔티티 조회 후 DTO 변환</p>
+ * <p>./gradlew jmh 실행 후 build/results/jmh/results.json에서 constructor와 queryProjection을 비교함.
+ * 측정 결과는 아직 없음 -> QMemberTeamDto/QMemberDto는 성능이 아니라 생성자 인자 타입을 컴파일 시점에 확인하려고 사용함.</p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class MemberProjectionBenchmark {
+
+    private static final QMemberTeamDto MEMBER_TEAM = new QMemberTeamDto(
+            member.id,
+            member.username,
+            member.age,
+            team.id,
+            team.name);
+
+    private JPAQueryFactory queryFactory;
+
+    private TransactionTemplate readOnlyTx;
+
+    @Setup
+    public void setUp(MemberBenchmarkState state) {
+        queryFactory = state.getBean(JPAQueryFactory.class);
+        readOnlyTx = new TransactionTemplate(state.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> constructor(MemberBenchmarkState state) {
+        return readOnlyTx.execute(status -> queryFactory
+                .select(Projections.constructor(MemberTeamDto.class,
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id,
+                        team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(team.name.eq(state.condition.getTeamName()),
+                        member.age.between(state.condition.getAgeGoe(), state.condition.getAgeLoe()))
+                .fetch());
+    }
+
+    /**
+     * compileQuerydsl이 생성한 QMemberTeamDto, 인스턴스를 재사용함
+     */
+    @Benchmark
+    public List<MemberTeamDto> queryProjection(MemberBenchmarkState state) {
+        return readOnlyTx.execute(status -> queryFactory
+                .select(MEMBER_TEAM)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(team.name.eq(state.condition.getTeamName()),
+                        member.age.between(state.condition.getAgeGoe(), state.condition.getAgeLoe()))
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> fields(MemberBenchmarkState state) {
+        return readOnlyTx.execute(status -> queryFactory
+                .select(Projections.fields(MemberTeamDto.class,
+                        member.id.as("memberId"),
+                        member.username,
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(team.name.eq(state.condition.getTeamName()),
+                        member.age.between(state.condition.getAgeGoe(), state.condition.getAgeLoe()))
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> bean(MemberBenchmarkState state) {
+        return readOnlyTx.execute(status -> queryFactory
+                .select(Projections.bean(MemberTeamDto.class,
+                        member.id.as("memberId"),
+                        member.username,
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(team.name.eq(state.condition.getTeamName()),
+                        member.age.between(state.condition.getAgeGoe(), state.condition.getAgeLoe()))
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> entity(MemberBenchmarkState state) {
+        return readOnlyTx.execute(status -> queryFactory
+                .selectFrom(member)
+                .leftJoin(member.team, team).fetchJoin()
+                .where(team.name.eq(state.condition.getTeamName()),
+                        member.age.between(state.condition.getAgeGoe(), state.condition.getAgeLoe()))
+                .fetch()
+                .stream()
+                .map(m -> new MemberTeamDto(
+                        m.getId(),
+                        m.getUsername(),
+                        m.getAge(),
+                        m.getTeam().getId(),
+                        m.getTeam().getName()))
+                .collect(Collectors.toList()));
+    }
+
+}
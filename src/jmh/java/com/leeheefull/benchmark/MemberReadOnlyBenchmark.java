@@ -0,0 +1,101 @@
+package com.leeheefull.benchmark;
+
+import com.leeheefull.querydsl.member.Infrastructure.MemberJpaRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>엔티티 조회 시 영속성 컨텍스트가 차지하는 힙 비교 (일반 조회 vs 읽기 전용 조회)</p>
+ * <p>readOnly 트랜잭션을 열고(Setup) findAll만 측정한 뒤(Benchmark), 트랜잭션을 닫기 전에(TearDown)
+ * GC를 돌려 남아 있는 힙을 재고 회원 10만 명 기준으로 환산해서 heapBytesPer100k 보조 지표로 남김.
+ * GC와 트랜잭션 시작/종료는 측정 시간에 들어가지 않음.</p>
+ * <p>memberCount=100000 결과가 회원 10만 명을 실제로 올렸을 때의 값임.</p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class MemberReadOnlyBenchmark {
+
+    @Param({"managed", "readOnly"})
+    public String mode;
+
+    private MemberJpaRepository memberJpaRepository;
+
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionStatus tx;
+
+    private long heapBefore;
+
+    private int loaded;
+
+    @Setup
+    public void setUp(MemberBenchmarkState state) {
+        memberJpaRepository = state.getBean(MemberJpaRepository.class);
+        transactionManager = state.getBean(PlatformTransactionManager.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void beginTransaction() {
+        var definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        tx = transactionManager.getTransaction(definition);
+        heapBefore = usedHeap();
+    }
+
+    @Benchmark
+    public int findAll() {
+        var members = "readOnly".equals(mode)
+                ? memberJpaRepository.findAllReadOnly()
+                : memberJpaRepository.findAll();
+        loaded = members.size();
+        return loaded;
+    }
+
+    @TearDown(Level.Invocation)
+    public void measureHeap(Heap heap) {
+        try {
+            // 트랜잭션이 끝나기 전이라 영속성 컨텍스트(엔티티 + 스냅샷)가 아직 살아 있음
+            var retained = usedHeap() - heapBefore;
+            heap.heapBytesPer100k = loaded == 0 ? 0 : retained * 100_000 / loaded;
+        } finally {
+            transactionManager.commit(tx);
+        }
+    }
+
+    private static long usedHeap() {
+        var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Heap {
+
+        public long heapBytesPer100k;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            heapBytesPer100k = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.leeheefull.benchmark;
+
+import com.leeheefull.querydsl.member.Infrastructure.MemberJpaRepository;
+import com.leeheefull.querydsl.member.Infrastructure.MemberRepository;
+import com.leeheefull.querydsl.member.dto.MemberTeamDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>순수 Querydsl repository와 Spring Data 사용자 정의 repository의 search 비교</p>
+ * <p>Throughput과 SampleTime(지연 시간 백분위)을 함께 측정하고, gc 프로파일러로 할당량을 확인함.</p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberSearchBenchmark {
+
+    @Benchmark
+    public List<MemberTeamDto> memberJpaRepositorySearch(MemberBenchmarkState state) {
+        return state.getBean(MemberJpaRepository.class).search(state.condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> memberRepositoryImplSearch(MemberBenchmarkState state) {
+        return state.getBean(MemberRepository.class).search(state.condition);
+    }
+
+}
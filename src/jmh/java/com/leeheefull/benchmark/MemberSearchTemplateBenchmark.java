@@ -0,0 +1,76 @@
+package com.leeheefull.benchmark;
+
+import com.leeheefull.querydsl.member.Infrastructure.MemberSearchQueryTemplates;
+import com.leeheefull.querydsl.member.dto.MemberTeamDto;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.leeheefull.querydsl.member.domain.QMember.member;
+import static com.leeheefull.querydsl.member.domain.QTeam.team;
+import static com.querydsl.core.types.Projections.constructor;
+
+/**
+ * <p>요청마다 Querydsl로 쿼리를 만드는 방식과 형태별 JPQL 템플릿 방식의 요청당 CPU, 할당량 비교</p>
+ * <p>쿼리 생성 비용이 드러나도록 MemberRepositoryImpl.searchPage 처럼 한 페이지(20건)만 조회함.</p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class MemberSearchTemplateBenchmark {
+
+    @Param({"20"})
+    public int pageSize;
+
+    private JPAQueryFactory queryFactory;
+
+    private MemberSearchQueryTemplates queryTemplates;
+
+    private TransactionTemplate readOnlyTx;
+
+    @Setup
+    public void setUp(MemberBenchmarkState state) {
+        queryFactory = state.getBean(JPAQueryFactory.class);
+        queryTemplates = state.getBean(MemberSearchQueryTemplates.class);
+        readOnlyTx = new TransactionTemplate(state.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> querydsl(MemberBenchmarkState state) {
+        var condition = state.condition;
+        return readOnlyTx.execute(status -> queryFactory
+                .select(constructor(
+                        MemberTeamDto.class,
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id,
+                        team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(team.name.eq(condition.getTeamName()),
+                        member.age.goe(condition.getAgeGoe()),
+                        member.age.loe(condition.getAgeLoe()))
+                .offset(0)
+                .limit(pageSize)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> template(MemberBenchmarkState state) {
+        return readOnlyTx.execute(status -> queryTemplates.search(state.condition, 0, pageSize));
+    }
+
+}
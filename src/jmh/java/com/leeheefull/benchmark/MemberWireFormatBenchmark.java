@@ -0,0 +1,78 @@
+package com.leeheefull.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leeheefull.querydsl.member.dto.MemberTeamDto;
+import com.leeheefull.querydsl.member.presentation.MemberTeamBinaryHttpMessageConverter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>/v1/members 응답 직렬화 비교: JSON(Jackson) vs 바이너리(application/x-member-team)</p>
+ * <p>직렬화 시간은 벤치마크 결과, 전송 바이트 수는 보조 카운터(bytes)로 확인함. DB는 사용하지 않음.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MemberWireFormatBenchmark {
+
+    @Param({"100", "10000"})
+    public int rowCount;
+
+    private List<MemberTeamDto> rows;
+
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        rows = new ArrayList<>(rowCount);
+        for (long i = 0; i < rowCount; i++) {
+            var teamId = i % MemberBenchmarkState.TEAM_COUNT;
+            rows.add(new MemberTeamDto(i, "member" + i, (int) (i % 100), teamId, "team" + teamId));
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bytes {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+
+    }
+
+    @Benchmark
+    public byte[] json(Bytes counter) throws IOException {
+        var out = new ByteArrayOutputStream();
+        objectMapper.writeValue(out, rows);
+        counter.bytes += out.size();
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] binary(Bytes counter) throws IOException {
+        var out = new ByteArrayOutputStream();
+        MemberTeamBinaryHttpMessageConverter.write(rows, out);
+        counter.bytes += out.size();
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.leeheefull.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * <p>Executor 빈을 직접 등록하면 스프링 부트의 applicationTaskExecutor 자동 설정이 꺼지므로 같은 설정(spring.task.execution)으로 다시 등록함</p>
+     * <p>MVC 비동기 처리(Callable)와 @Async 기본 실행기로 쓰임. 회원 검색 스레드 풀은 @Qualifier("memberSearchExecutor")로 주입받아야 함.</p>
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * <p>회원 검색 전용 스레드 풀</p>
+     * <p>DB 동시 실행 수(pool-size)를 HTTP 동시 요청 수와 따로 정하기 위해 사용함.
+     * 큐(queue-capacity)까지 가득 차면 요청을 거절하고 503을 응답함.</p>
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor memberSearchExecutor(@Value("${member.async.pool-size:10}") int poolSize,
+                                                       @Value("${member.async.queue-capacity:100}") int queueCapacity) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("member-search-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 회원 읽기 모델 재적재 전용 스레드 (MemberReadModel이 예약을 합치므로 스레드 하나면 충분함)
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor memberReadModelExecutor() {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("member-read-model-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 팀 통계 재집계 전용 스레드 (TeamStatisticsRepository가 예약을 합침)
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor teamStatisticsExecutor() {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("team-statistics-");
+        executor.initialize();
+        return executor;
+    }
+
+}
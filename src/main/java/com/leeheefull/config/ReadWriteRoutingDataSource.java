@@ -0,0 +1,157 @@
+package com.leeheefull.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>readOnly 트랜잭션은 replica로, 나머지는 primary로 보내는 DataSource</p>
+ * <p>트랜잭션 시작 시점에는 readOnly 여부가 아직 정해지지 않으므로 반드시 LazyConnectionDataSourceProxy로 감싸서 사용해야 함.</p>
+ * <p>stickyWindow가 0보다 크면, 쓰기 트랜잭션을 커밋한 클라이언트의 읽기를 그 시간 동안 primary로 보냄(read-your-writes).
+ * 클라이언트 구분은 {@link ReadYourWritesFilter}가 쿠키로 하고, 요청 하나 동안 {@link #beginRequest}로 범위를 엶.
+ * 범위가 없으면(요청 밖 작업 스레드, 비동기 검색 스레드) 고정하지 않음 -> 풀에서 재사용되는 스레드로 다른 사용자에게 새지 않음.</p>
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_BUSY
+    }
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Sticky> STICKY = new ThreadLocal<>();
+
+    private final List<DataSource> replicas;
+
+    private final Strategy strategy;
+
+    private final long stickyWindowMillis;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Strategy strategy, Duration stickyWindow) {
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+        this.stickyWindowMillis = stickyWindow.toMillis();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * 현재 스레드에서 요청 하나의 범위를 시작함. 끝나면 {@link #endRequest()} 해야 함.
+     *
+     * @param primaryUntil 이전 요청에서 받은 고정 종료 시각 (epoch millis, 없으면 0)
+     * @param onWrite      이 요청에서 쓰기가 커밋되면 새 고정 종료 시각을 받음 (클라이언트에 돌려줌)
+     */
+    public static void beginRequest(long primaryUntil, LongConsumer onWrite) {
+        STICKY.set(new Sticky(primaryUntil, onWrite));
+    }
+
+    public static void endRequest() {
+        STICKY.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWrite();
+            return PRIMARY;
+        }
+        if (replicas.isEmpty() || recentlyWritten()) {
+            return PRIMARY;
+        }
+        return strategy == Strategy.LEAST_BUSY ? leastBusy() : roundRobin();
+    }
+
+    /**
+     * replica 풀은 빈이 아니므로 직접 닫음 (primary는 빈으로 등록되어 있음)
+     */
+    @Override
+    public void destroy() {
+        for (var replica : replicas) {
+            if (replica instanceof HikariDataSource) {
+                ((HikariDataSource) replica).close();
+            }
+        }
+    }
+
+    private int roundRobin() {
+        return Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    /**
+     * HikariCP 풀의 사용 중인 커넥션 수가 가장 적은 replica
+     */
+    private int leastBusy() {
+        int selected = roundRobin();
+        int minActive = Integer.MAX_VALUE;
+        for (int offset = 0; offset < replicas.size(); offset++) {
+            int index = (selected + offset) % replicas.size();
+            int active = activeConnections(replicas.get(index));
+            if (active < minActive) {
+                minActive = active;
+                selected = index;
+            }
+        }
+        return selected;
+    }
+
+    private static int activeConnections(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            var pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+        return 0;
+    }
+
+    private void recordWrite() {
+        var sticky = STICKY.get();
+        if (stickyWindowMillis <= 0 || sticky == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sticky.primaryUntil = System.currentTimeMillis() + stickyWindowMillis;
+                sticky.onWrite.accept(sticky.primaryUntil);
+            }
+        });
+    }
+
+    private boolean recentlyWritten() {
+        var sticky = STICKY.get();
+        return sticky != null && System.currentTimeMillis() < sticky.primaryUntil;
+    }
+
+    /**
+     * 여러 서버가 같은 쿠키 값을 해석해야 하므로 nanoTime이 아닌 epoch millis를 사용함
+     */
+    private static class Sticky {
+
+        private long primaryUntil;
+        private final LongConsumer onWrite;
+
+        private Sticky(long primaryUntil, LongConsumer onWrite) {
+            this.primaryUntil = primaryUntil;
+            this.onWrite = onWrite;
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.leeheefull.config;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * <p>쓰기를 커밋한 클라이언트에게 primary 고정 종료 시각을 쿠키로 내려주고, 다음 요청에서 그 값으로 {@link ReadWriteRoutingDataSource}의 범위를 엶</p>
+ * <p>요청 스레드에서 실행된 트랜잭션만 반영함. 응답이 이미 커밋된 뒤(스트리밍 중)에 커밋된 쓰기는 쿠키를 내려줄 수 없음.</p>
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "primary-until";
+
+    private final Duration stickyWindow;
+
+    public ReadYourWritesFilter(Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ReadWriteRoutingDataSource.beginRequest(primaryUntil(request), primaryUntil -> {
+            if (!response.isCommitted()) {
+                var cookie = new Cookie(COOKIE, Long.toString(primaryUntil));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, stickyWindow.toSeconds()));
+                response.addCookie(cookie);
+            }
+        });
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.endRequest();
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        var cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.leeheefull.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+
+/**
+ * <p>datasource.routing.enabled=true 일 때 spring.datasource(primary) + datasource.routing.replicas 로 라우팅 DataSource 구성</p>
+ * <p>-> MemberJpaRepository 처럼 @Transactional(readOnly = true)인 조회는 replica, save 같은 쓰기는 primary로 감.</p>
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                        RoutingDataSourceProperties properties) {
+        var replicas = new ArrayList<DataSource>();
+        for (var replica : properties.getReplicas()) {
+            var dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            if (replica.getDriverClassName() != null) {
+                dataSource.setDriverClassName(replica.getDriverClassName());
+            }
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas,
+                properties.getStrategy(), properties.getStickyWindow());
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(RoutingDataSourceProperties properties) {
+        return new ReadYourWritesFilter(properties.getStickyWindow());
+    }
+
+    /**
+     * 트랜잭션의 readOnly 여부가 정해진 뒤 첫 SQL 실행 시점에 커넥션을 가져오도록 지연 프록시로 감쌈
+     */
+    @Primary
+    @Bean
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+}
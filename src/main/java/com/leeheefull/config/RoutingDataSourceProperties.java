@@ -0,0 +1,39 @@
+package com.leeheefull.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled;
+
+    private ReadWriteRoutingDataSource.Strategy strategy = ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN;
+
+    /**
+     * 쓰기 커밋 후 그 클라이언트의 읽기를 primary로 고정하는 시간, 0이면 사용하지 않음
+     */
+    private Duration stickyWindow = Duration.ZERO;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.leeheefull.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 감지 설정을 가진 {@link SqlStatementCounter} 인스턴스를 등록함. 설정이 컨텍스트마다 따로 있으므로 컨텍스트끼리 덮어쓰지 않음.
+ */
+@Configuration
+public class SqlStatementConfig {
+
+    @Value("${sql.n-plus-one.repeat-threshold:0}")
+    private int repeatThreshold;
+
+    @Value("${sql.n-plus-one.action:log}")
+    private String action;
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        var counter = new SqlStatementCounter(repeatThreshold, SqlStatementCounter.Action.valueOf(action.toUpperCase()));
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.leeheefull.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * <p>HTTP 요청 하나가 실행한 SQL 문 개수를 sql.statements.per.request 로 기록함</p>
+ * <p>요청 스레드에서 실행된 SQL만 셈. MemberPageExecutor의 병렬 count, 비동기 검색(memberSearchExecutor),
+ * 커밋 후 재적재처럼 다른 스레드에서 실행된 SQL은 포함되지 않음 (쿼리별 지연 시간은 /actuator/queries에 남음).</p>
+ */
+@Component
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    private final DistributionSummary statementsPerRequest;
+
+    public SqlStatementCountFilter(MeterRegistry registry) {
+        this.statementsPerRequest = DistributionSummary.builder("sql.statements.per.request")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.startRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statementsPerRequest.record(SqlStatementCounter.count());
+            SqlStatementCounter.reset();
+        }
+    }
+
+}
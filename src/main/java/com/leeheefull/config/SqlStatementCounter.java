@@ -0,0 +1,199 @@
+package com.leeheefull.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * <p>현재 스레드에서 실행된 SQL 문 개수 집계, N+1 감지</p>
+ * <p>{@link SqlStatementConfig}가 컨텍스트마다 인스턴스를 만들어 hibernate.session_factory.statement_inspector로 넘김.
+ * 감지 설정은 인스턴스에, 집계는 스레드 로컬에 둠.</p>
+ * <p>집계 범위</p>
+ * <ul>
+ *     <li>HTTP 요청: {@link SqlStatementCountFilter}가 {@link #startRequest()}로 시작하고 끝나면 기록 후 {@link #reset()} 함</li>
+ *     <li>트랜잭션: 요청 밖(검색 스레드 풀, 커밋 후 재적재 등)에서는 트랜잭션 하나가 범위이고, 트랜잭션이 끝나면 초기화됨</li>
+ *     <li>둘 다 아니면(트랜잭션 없는 작업 스레드) 세지 않음 -> 오래 사는 스레드에 개수가 계속 쌓이지 않음</li>
+ * </ul>
+ * <p>테스트에서는 트랜잭션 안에서 {@link #reset()} 후 개수를 검증할 수 있음.</p>
+ * <p>N+1 감지: 파라미터만 다른 같은 SQL이 repeatThreshold 번을 넘어서 반복되면 로그를 남기거나({@link Action#LOG})
+ * 예외를 던짐({@link Action#FAIL}). JDBC batch insert와 시퀀스 호출, {@link #chunked(Supplier)} 안에서 나누어 실행한 SQL은
+ * 반복되는 것이 정상이므로 제외함.</p>
+ */
+@Slf4j
+public class SqlStatementCounter implements StatementInspector {
+
+    public enum Action {
+        LOG, FAIL
+    }
+
+    private static final ThreadLocal<Statements> STATEMENTS = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> CHUNKED = new ThreadLocal<>();
+
+    /**
+     * 0 이하이면 감지하지 않음
+     */
+    private final int repeatThreshold;
+
+    private final Action action;
+
+    public SqlStatementCounter(int repeatThreshold, Action action) {
+        this.repeatThreshold = repeatThreshold;
+        this.action = action;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        var statements = current();
+        if (statements == null) {
+            return sql;
+        }
+        statements.total++;
+        if (CHUNKED.get() != null || isInsertOrSequence(sql)) {
+            return sql;
+        }
+        int repeats = statements.repeats.merge(sql, 1, Integer::sum);
+
+        if (repeatThreshold > 0 && repeats == repeatThreshold + 1) {
+            var message = "N+1 의심: 같은 SQL이 " + repeats + "번 이상 반복 실행됨 -> " + sql;
+            if (action == Action.FAIL) {
+                throw new NPlusOneQueryException(message);
+            }
+            log.warn(message);
+        }
+        return sql;
+    }
+
+    /**
+     * 같은 SQL을 일부러 나누어 반복 실행하는 작업(벌크 chunk, IN 목록 분할)을 감지에서 제외함. 개수는 그대로 셈.
+     */
+    public static <T> T chunked(Supplier<T> work) {
+        var outer = CHUNKED.get();
+        CHUNKED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                CHUNKED.remove();
+            }
+        }
+    }
+
+    public static void chunked(Runnable work) {
+        chunked(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * 현재 스레드를 HTTP 요청 범위로 집계함. 요청이 끝나면 {@link #reset()} 해야 함.
+     */
+    public static void startRequest() {
+        STATEMENTS.set(new Statements(null));
+    }
+
+    public static int count() {
+        var statements = STATEMENTS.get();
+        return statements == null ? 0 : statements.total;
+    }
+
+    /**
+     * 가장 많이 반복된 SQL의 실행 횟수
+     */
+    public static int maxRepeats() {
+        var statements = STATEMENTS.get();
+        if (statements == null) {
+            return 0;
+        }
+        return statements.repeats.values().stream()
+                .mapToInt(Integer::intValue)
+                .max()
+                .orElse(0);
+    }
+
+    public static void reset() {
+        STATEMENTS.remove();
+    }
+
+    /**
+     * 요청 범위면 그대로, 아니면 현재 트랜잭션의 집계를 반환함. 이전 트랜잭션의 집계가 남아 있으면 새로 시작함.
+     */
+    private static Statements current() {
+        var statements = STATEMENTS.get();
+        if (statements != null && statements.synchronization == null) {
+            return statements;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            STATEMENTS.remove();
+            return null;
+        }
+        if (statements == null
+                || !TransactionSynchronizationManager.getSynchronizations().contains(statements.synchronization)) {
+            statements = new Statements(new ResetSynchronization());
+            TransactionSynchronizationManager.registerSynchronization(statements.synchronization);
+            STATEMENTS.set(statements);
+        }
+        return statements;
+    }
+
+    /**
+     * 주석(use_sql_comments)을 건너뛰고 INSERT 문이거나 시퀀스 호출인지 확인함
+     */
+    static boolean isInsertOrSequence(String sql) {
+        var statement = sql.stripLeading();
+        while (statement.startsWith("/*")) {
+            var end = statement.indexOf("*/");
+            if (end < 0) {
+                return false;
+            }
+            statement = statement.substring(end + 2).stripLeading();
+        }
+        var lower = statement.toLowerCase(Locale.ROOT);
+        return lower.startsWith("insert")
+                || lower.contains("next value for")
+                || lower.contains("nextval");
+    }
+
+    private static class Statements {
+
+        /**
+         * 요청 범위이면 null
+         */
+        private final ResetSynchronization synchronization;
+        private int total;
+        private final Map<String, Integer> repeats = new HashMap<>();
+
+        private Statements(ResetSynchronization synchronization) {
+            this.synchronization = synchronization;
+        }
+
+    }
+
+    private static class ResetSynchronization implements TransactionSynchronization {
+
+        @Override
+        public void afterCompletion(int status) {
+            var statements = STATEMENTS.get();
+            if (statements != null && statements.synchronization == this) {
+                STATEMENTS.remove();
+            }
+        }
+
+    }
+
+    public static class NPlusOneQueryException extends RuntimeException {
+
+        public NPlusOneQueryException(String message) {
+            super(message);
+        }
+
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.leeheefull.config;
+
+import com.leeheefull.querydsl.member.presentation.MemberTeamBinaryHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Accept 헤더가 없거나 *&#47;* 이면 앞쪽의 JSON이 선택되도록 마지막에 추가함
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MemberTeamBinaryHttpMessageConverter());
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.domain.Team;
+import org.hibernate.proxy.HibernateProxy;
+
+/**
+ * 지연 로딩 프록시를 초기화하지 않고 식별자를 꺼냄 (커밋 후 이벤트에서는 세션을 쓸 수 없음)
+ */
+final class EntityIds {
+
+    private EntityIds() {
+    }
+
+    static Long teamId(Object team) {
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return ((Team) team).getId();
+    }
+
+}
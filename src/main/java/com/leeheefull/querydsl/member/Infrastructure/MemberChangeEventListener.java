@@ -0,0 +1,106 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.domain.Member;
+import com.leeheefull.querydsl.member.domain.Team;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Member, Team 변경 감지</p>
+ * <p>어느 repository를 거치든 insert/update/delete가 flush 되면 회원 관련 캐시를 무효화함.</p>
+ * <p>롤백된 트랜잭션에서 계산된 값이 남지 않도록 트랜잭션 종료 시점에 한 번 더 무효화함.</p>
+ * <p>무효화할 때마다 dataVersion을 올리므로 응답 캐시(ETag)는 이 값으로 변경 여부를 판단함.</p>
+ */
+@RequiredArgsConstructor
+@Component
+public class MemberChangeEventListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory emf;
+
+    private final MemberCountCache countCache;
+
+    private final AtomicLong dataVersion = new AtomicLong();
+
+    @PostConstruct
+    public void register() {
+        var registry = emf.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getEntity());
+    }
+
+    /**
+     * 벌크 연산처럼 엔티티 이벤트가 발생하지 않는 변경은 직접 호출해야 함.
+     */
+    public void changed() {
+        invalidate();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        // 트랜잭션당 한 번만 등록함
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberChangeEventListener.this);
+                invalidate();
+            }
+        });
+    }
+
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void changed(Object entity) {
+        if (entity instanceof Member || entity instanceof Team) {
+            changed();
+        }
+    }
+
+    private void invalidate() {
+        dataVersion.incrementAndGet();
+        countCache.invalidateAll();
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * <p>searchPage count 쿼리 결과 캐시</p>
+ * <p>같은 검색 조건으로 페이지를 넘길 때마다 count 쿼리가 반복되지 않도록 정규화한 검색 조건을 키로 total을 보관함.</p>
+ * <p>TTL이 지나거나 최대 크기를 넘으면(LRU) 제거되고, 회원이 변경되면 {@link #invalidateAll()}로 전부 비움.</p>
+ * <p>무효화할 때마다 version을 올리고, count 쿼리 실행 중에 version이 바뀌었으면 결과를 저장하지 않음.
+ * -> 무효화 이전 데이터로 센 total이 무효화 이후에 다시 저장되지 않음.</p>
+ */
+@Component
+public class MemberCountCache {
+
+    private final long ttlNanos;
+
+    private final Map<CountKey, Entry> entries;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public MemberCountCache(@Value("${member.count-cache.ttl:30s}") Duration ttl,
+                            @Value("${member.count-cache.max-size:1000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CountKey, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public long get(MemberSearchCondition condition, Supplier<Long> countQuery) {
+        var key = CountKey.of(condition);
+        var now = System.nanoTime();
+        long startVersion;
+
+        synchronized (entries) {
+            startVersion = version.get();
+            var entry = entries.get(key);
+            if (entry != null && entry.version == startVersion && now - entry.createdAt < ttlNanos) {
+                hitCount.incrementAndGet();
+                return entry.total;
+            }
+        }
+
+        missCount.incrementAndGet();
+        var total = countQuery.get();
+        synchronized (entries) {
+            // 쿼리 실행 중에 무효화되었으면 이미 오래된 값일 수 있으므로 저장하지 않음
+            if (version.get() == startVersion) {
+                entries.put(key, new Entry(total, now, startVersion));
+            }
+        }
+        return total;
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            version.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 빈 문자열과 null은 같은 조건(필터 없음)으로 취급함.
+     */
+    @EqualsAndHashCode
+    private static class CountKey {
+
+        private final String username;
+        private final String teamName;
+        private final Integer ageGoe;
+        private final Integer ageLoe;
+
+        private CountKey(String username, String teamName, Integer ageGoe, Integer ageLoe) {
+            this.username = username;
+            this.teamName = teamName;
+            this.ageGoe = ageGoe;
+            this.ageLoe = ageLoe;
+        }
+
+        static CountKey of(MemberSearchCondition condition) {
+            return new CountKey(
+                    textOrNull(condition.getUsername()),
+                    textOrNull(condition.getTeamName()),
+                    condition.getAgeGoe(),
+                    condition.getAgeLoe());
+        }
+
+        private static String textOrNull(String value) {
+            return StringUtils.hasText(value) ? value : null;
+        }
+
+    }
+
+    private static class Entry {
+
+        private final long total;
+        private final long createdAt;
+        private final long version;
+
+        private Entry(long total, long createdAt, long version) {
+            this.total = total;
+            this.createdAt = createdAt;
+            this.version = version;
+        }
+
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import static com.leeheefull.querydsl.member.domain.QMember.member;
+import static com.leeheefull.querydsl.member.domain.QTeam.team;
+
+/**
+ * <p>member -> team 조인 방식 결정</p>
+ * <ul>
+ *     <li>팀 조건(team.name = ?)이 있으면 어차피 팀 없는 회원은 걸러지므로 inner join</li>
+ *     <li>팀 조건은 없고 팀 컬럼을 조회하면 팀 없는 회원도 나와야 하므로 left join</li>
+ *     <li>둘 다 아니면(예: count) 조인하지 않음. ManyToOne left join은 row 수를 바꾸지 않음</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class MemberJoinPlanner {
+
+    public enum JoinPlan {
+        NONE, INNER, LEFT
+    }
+
+    public JoinPlan plan(String queryName, boolean teamPredicate, boolean teamProjection) {
+        JoinPlan plan;
+        if (teamPredicate) {
+            plan = JoinPlan.INNER;
+        } else if (teamProjection) {
+            plan = JoinPlan.LEFT;
+        } else {
+            plan = JoinPlan.NONE;
+        }
+        log.debug("join plan [{}] teamPredicate={}, teamProjection={} -> {}", queryName, teamPredicate, teamProjection, plan);
+        return plan;
+    }
+
+    public <T> JPAQuery<T> join(JPAQuery<T> query, JoinPlan plan) {
+        switch (plan) {
+            case INNER:
+                return query.join(member.team, team);
+            case LEFT:
+                return query.leftJoin(member.team, team);
+            default:
+                return query;
+        }
+    }
+
+}
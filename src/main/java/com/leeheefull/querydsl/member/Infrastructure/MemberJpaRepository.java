@@ -4,19 +4,27 @@ import com.leeheefull.querydsl.member.domain.Member;
 import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
 import com.leeheefull.querydsl.member.dto.MemberTeamDto;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static com.leeheefull.querydsl.member.domain.QMember.member;
 import static com.leeheefull.querydsl.member.domain.QTeam.team;
-import static com.querydsl.core.types.Projections.constructor;
+import static com.leeheefull.querydsl.member.Infrastructure.MemberProjections.MEMBER_TEAM;
 
 
 /**
@@ -32,6 +40,16 @@ public class MemberJpaRepository {
 
     private final JPAQueryFactory queryFactory;
 
+    private final QueryMetrics queryMetrics;
+
+    private final MemberJoinPlanner joinPlanner;
+
+    /**
+     * MySQL 외의 DB에서 stream이 한 번에 가져오는 row 수. MySQL은 {@link #streamFetchSize()} 참고
+     */
+    @Value("${member.stream.fetch-size:500}")
+    private int streamFetchSize;
+
     @Transactional
     public void save(Member member) {
         em.persist(member);
@@ -63,22 +81,88 @@ public class MemberJpaRepository {
                 .fetch();
     }
 
+    /**
+     * <p>읽기 전용 엔티티 조회</p>
+     * <p>HINT_READONLY로 불러온 엔티티는 dirty checking용 스냅샷(로딩 시점 값 복사본)을 만들지 않아서
+     * 같은 수의 엔티티를 올려도 영속성 컨텍스트가 차지하는 힙이 줄어듦. 변경해도 update 되지 않음.</p>
+     * <p>readOnly 트랜잭션이면 flush 모드 COMMIT이라 조회 전에 자동 flush(변경 감지)도 하지 않음.
+     * 호출한 쪽의 쓰기 트랜잭션에 참여하면 AUTO flush를 그대로 두어 아직 flush 하지 않은 변경도 조회 결과에 반영됨.
+     * (쓰기 트랜잭션에서 COMMIT으로 바꾸면 같은 트랜잭션의 변경이 빠진 오래된 결과가 나올 수 있음)</p>
+     * <p>주의: 이미 영속성 컨텍스트에 있는 엔티티는 그대로 반환되므로 읽기 전용이 되지 않음.</p>
+     */
+    public List<Member> findAllReadOnly() {
+        return readOnly(queryFactory
+                .selectFrom(member))
+                .fetch();
+    }
+
+    public List<Member> findByUsernameReadOnly(String username) {
+        return readOnly(queryFactory
+                .selectFrom(member)
+                .where(member.username.eq(username)))
+                .fetch();
+    }
+
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
-                .select(constructor(
-                        MemberTeamDto.class,
-                        member.id,
-                        member.username,
-                        member.age,
-                        team.id,
-                        team.name))
-                .from(member)
-                .leftJoin(member.team, team)
+        return queryMetrics.list("memberJpa.search", () -> joinPlanner.join(queryFactory
+                        .select(MEMBER_TEAM)
+                        .from(member), teamJoin("memberJpa.search", condition))
                 .where(usernameEq(condition.getUsername()),
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe()))
-                .fetch();
+                .fetch());
+    }
+
+    /**
+     * <p>검색 결과를 전부 List로 만들지 않고 forward-only 커서로 한 건씩 consumer에 넘김</p>
+     * <p>DTO 프로젝션이라 영속성 컨텍스트에 엔티티가 쌓이지 않음. 결과 건수와 상관없이 힙 사용량이 일정함.</p>
+     */
+    public void stream(MemberSearchCondition condition, Consumer<MemberTeamDto> consumer) {
+        var start = System.nanoTime();
+        var count = new long[1];
+        try (var rows = joinPlanner.join(queryFactory
+                        .select(MEMBER_TEAM)
+                        .from(member), teamJoin("memberJpa.stream", condition))
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()))
+                .setHint(QueryHints.HINT_FETCH_SIZE, streamFetchSize())
+                .setHint(QueryHints.HINT_READONLY, true)
+                .stream()) {
+            rows.forEach(row -> {
+                count[0]++;
+                consumer.accept(row);
+            });
+        } finally {
+            queryMetrics.record("memberJpa.stream", System.nanoTime() - start, count[0]);
+        }
+    }
+
+    /**
+     * <p>MySQL Connector/J는 fetch size가 Integer.MIN_VALUE일 때만 row 단위로 스트리밍하고,
+     * 그 외의 값은 (useCursorFetch=true가 아니면) 결과 전체를 메모리에 올린 뒤 넘겨줌.
+     * -> MySQL이면 설정값 대신 Integer.MIN_VALUE를 사용함.</p>
+     */
+    private int streamFetchSize() {
+        var dialect = em.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+        return dialect instanceof MySQLDialect ? Integer.MIN_VALUE : streamFetchSize;
+    }
+
+    private static <T> JPAQuery<T> readOnly(JPAQuery<T> query) {
+        query.setHint(QueryHints.HINT_READONLY, true);
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            query.setFlushMode(FlushModeType.COMMIT);
+        }
+        return query;
+    }
+
+    private MemberJoinPlanner.JoinPlan teamJoin(String queryName, MemberSearchCondition condition) {
+        return joinPlanner.plan(queryName, StringUtils.hasText(condition.getTeamName()), true);
     }
 
     private BooleanExpression usernameEq(String username) {
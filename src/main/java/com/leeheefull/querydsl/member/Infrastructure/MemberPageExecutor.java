@@ -0,0 +1,199 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * <p>페이지 조회의 content 쿼리와 count 쿼리 실행기</p>
+ * <p>member.search-page.parallel-count=true 이면 count 쿼리를 별도 스레드(별도 커넥션)에서 content 쿼리와 동시에 실행함.
+ * 지연 시간이 두 쿼리의 합이 아니라 둘 중 긴 쪽이 됨.</p>
+ * <ul>
+ *     <li>첫 페이지(offset 0)는 content가 페이지보다 작으면 count가 필요 없으므로 미리 시작하지 않고 순차 실행함</li>
+ *     <li>그 외 페이지에서 마지막 페이지라 count가 필요 없어지면, 아직 시작하지 않은 count는 실행하지 않고
+ *     실행 중인 count는 JDBC Statement.cancel()로 중단함 (count 전용 EntityManager의 Session.cancelQuery)</li>
+ *     <li>스레드 풀이 가득 차 있으면 기존처럼 순차 실행함</li>
+ * </ul>
+ * <p>주의: count는 호출한 트랜잭션 밖에서 실행되므로 아직 커밋되지 않은 변경은 보이지 않음.</p>
+ */
+@Component
+public class MemberPageExecutor implements DisposableBean {
+
+    private final EntityManagerFactory emf;
+
+    private final boolean parallelCount;
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong parallelExecutions = new AtomicLong();
+
+    private final AtomicLong sequentialFallbacks = new AtomicLong();
+
+    private final AtomicLong cancelledCounts = new AtomicLong();
+
+    private final AtomicLong savedNanos = new AtomicLong();
+
+    public MemberPageExecutor(EntityManagerFactory emf,
+                              @Value("${member.search-page.parallel-count:false}") boolean parallelCount,
+                              @Value("${member.search-page.pool-size:8}") int poolSize,
+                              @Value("${member.search-page.queue-size:32}") int queueSize) {
+        this.emf = emf;
+        this.parallelCount = parallelCount;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public <T> Page<T> getPage(Supplier<List<T>> contentQuery, Pageable pageable, LongSupplier countQuery) {
+        if (!parallelCount || pageable.isUnpaged() || pageable.getOffset() == 0) {
+            return PageableExecutionUtils.getPage(contentQuery.get(), pageable, countQuery);
+        }
+
+        var start = System.nanoTime();
+        var countNanos = new AtomicLong();
+        var count = new CountExecution();
+        CompletableFuture<Long> countFuture;
+        try {
+            countFuture = CompletableFuture.supplyAsync(() -> {
+                var countStart = System.nanoTime();
+                var total = count.run(emf, countQuery);
+                countNanos.set(System.nanoTime() - countStart);
+                return total;
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            sequentialFallbacks.incrementAndGet();
+            return PageableExecutionUtils.getPage(contentQuery.get(), pageable, countQuery);
+        }
+
+        List<T> content;
+        try {
+            content = contentQuery.get();
+        } catch (RuntimeException e) {
+            cancel(countFuture, count);
+            throw e;
+        }
+        var contentNanos = System.nanoTime() - start;
+
+        var countUsed = new AtomicBoolean();
+        var page = PageableExecutionUtils.getPage(content, pageable, () -> {
+            countUsed.set(true);
+            return join(countFuture);
+        });
+
+        if (!countUsed.get()) {
+            cancel(countFuture, count);
+            return page;
+        }
+        parallelExecutions.incrementAndGet();
+        var elapsedNanos = System.nanoTime() - start;
+        savedNanos.addAndGet(Math.max(0, contentNanos + countNanos.get() - elapsedNanos));
+        return page;
+    }
+
+    public long getParallelExecutions() {
+        return parallelExecutions.get();
+    }
+
+    public long getSequentialFallbacks() {
+        return sequentialFallbacks.get();
+    }
+
+    public long getCancelledCounts() {
+        return cancelledCounts.get();
+    }
+
+    public long getSavedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(savedNanos.get());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    int queuedCounts() {
+        return executor.getQueue().size();
+    }
+
+    private void cancel(CompletableFuture<Long> countFuture, CountExecution count) {
+        // CompletableFuture.cancel은 실행 중인 작업을 중단하지 않으므로 SQL은 직접 취소함
+        countFuture.cancel(false);
+        count.cancel();
+        cancelledCounts.incrementAndGet();
+    }
+
+    private static long join(CompletableFuture<Long> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * <p>count 한 번의 실행 상태</p>
+     * <p>count는 전용 EntityManager를 스레드에 바인딩해서 실행하므로 공유 EntityManager로 만든 쿼리도 이 세션에서 실행됨.
+     * 그 세션의 cancelQuery()로 실행 중인 Statement를 취소할 수 있음.</p>
+     */
+    private static class CountExecution {
+
+        private volatile boolean cancelled;
+
+        private volatile EntityManager entityManager;
+
+        long run(EntityManagerFactory emf, LongSupplier countQuery) {
+            var em = emf.createEntityManager();
+            TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(em));
+            try {
+                entityManager = em;
+                if (cancelled) {
+                    throw new CancellationException("count 취소됨");
+                }
+                return countQuery.getAsLong();
+            } finally {
+                entityManager = null;
+                TransactionSynchronizationManager.unbindResource(emf);
+                em.close();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            var em = entityManager;
+            if (em == null) {
+                return;
+            }
+            try {
+                em.unwrap(Session.class).cancelQuery();
+            } catch (RuntimeException e) {
+                // 그 사이에 count가 끝나서 세션이 닫힌 경우
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.dto.QMemberDto;
+import com.leeheefull.querydsl.member.dto.QMemberTeamDto;
+
+import static com.leeheefull.querydsl.member.domain.QMember.member;
+import static com.leeheefull.querydsl.member.domain.QTeam.team;
+
+/**
+ * <p>@QueryProjection으로 생성된 DTO 프로젝션</p>
+ * <p>Projections.constructor는 인자 타입이 생성자와 맞지 않으면 실행할 때 실패하지만,
+ * 생성된 프로젝션은 생성자 시그니처가 컴파일 시점에 고정되므로 컴파일 오류로 드러남.</p>
+ */
+final class MemberProjections {
+
+    static final QMemberTeamDto MEMBER_TEAM = new QMemberTeamDto(
+            member.id,
+            member.username,
+            member.age,
+            team.id,
+            team.name);
+
+    static final QMemberDto MEMBER = new QMemberDto(
+            member.username,
+            member.age);
+
+    private MemberProjections() {
+    }
+
+}
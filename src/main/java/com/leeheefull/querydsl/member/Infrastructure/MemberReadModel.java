@@ -0,0 +1,467 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.domain.Member;
+import com.leeheefull.querydsl.member.domain.Team;
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import com.leeheefull.querydsl.member.dto.MemberTeamDto;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.leeheefull.querydsl.member.domain.QMember.member;
+import static com.leeheefull.querydsl.member.domain.QTeam.team;
+import static com.leeheefull.querydsl.member.Infrastructure.MemberProjections.MEMBER_TEAM;
+
+/**
+ * <p>MemberTeamDto 인메모리 읽기 모델</p>
+ * <p>member.read-model.enabled=true 이면 시작 시 전체 회원을 올려두고,
+ * username(hash), 팀 이름(hash), 나이(정렬) 인덱스로 DB 없이 MemberSearchCondition 검색에 응답함.</p>
+ * <p>Member, Team 변경은 커밋 후(post-commit) Hibernate 이벤트로 한 건씩 반영하고,
+ * 엔티티 이벤트가 없는 벌크 연산은 {@link #reloadAfterCommit()}으로 전체를 다시 읽음.
+ * 재적재는 커밋한 스레드가 아닌 전용 스레드 하나에서 실행하고, 실행 전에 쌓인 요청은 한 번으로 합침.
+ * 다 읽을 때까지는 이전 인덱스로 응답함 (뒤처진 정도는 {@link #getStaleness()}).</p>
+ * <p>전체를 다시 읽는 동안 들어온 변경은 따로 모아 두었다가 새 스냅샷에 다시 적용함.
+ * -> 스냅샷 조회와 교체 사이에 커밋된 변경이 사라지지 않음 (같은 변경을 두 번 적용해도 결과는 같음).</p>
+ */
+@Slf4j
+@Component
+public class MemberReadModel
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final boolean enabled;
+
+    private final EntityManagerFactory emf;
+
+    private final JPAQueryFactory queryFactory;
+
+    private final Executor reloadExecutor;
+
+    /**
+     * 아직 시작하지 않은 재적재가 예약되어 있으면 true -> 그 사이 요청은 새로 예약하지 않음
+     */
+    private final AtomicBoolean reloadScheduled = new AtomicBoolean();
+
+    private volatile CompletableFuture<Void> scheduledReload = CompletableFuture.completedFuture(null);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, MemberTeamDto> byId = new HashMap<>();
+
+    private final Map<String, Set<Long>> byUsername = new HashMap<>();
+
+    private final Map<String, Set<Long>> byTeamName = new HashMap<>();
+
+    private final Map<Long, Set<Long>> byTeamId = new HashMap<>();
+
+    private final NavigableMap<Integer, Set<Long>> byAge = new TreeMap<>();
+
+    private final Map<Long, String> teamNames = new HashMap<>();
+
+    private final Object reloadMonitor = new Object();
+
+    /**
+     * 전체 재적재 중에 적용된 변경 (재적재 중이 아니면 null, lock으로 보호)
+     */
+    private List<Runnable> pendingChanges;
+
+    private volatile boolean ready;
+
+    private volatile long lastAppliedAt;
+
+    /**
+     * 0이면 전체 재적재 대기 중이 아님
+     */
+    private volatile long reloadRequestedAt;
+
+    public MemberReadModel(@Value("${member.read-model.enabled:false}") boolean enabled,
+                           EntityManagerFactory emf,
+                           JPAQueryFactory queryFactory,
+                           @Qualifier("memberReadModelExecutor") Executor reloadExecutor) {
+        this.enabled = enabled;
+        this.emf = emf;
+        this.queryFactory = queryFactory;
+        this.reloadExecutor = reloadExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        var registry = emf.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        reload();
+    }
+
+    /**
+     * 재적재가 예약되어 있어도 이전 인덱스로 응답함
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        var username = StringUtils.hasText(condition.getUsername()) ? condition.getUsername() : null;
+        var teamName = StringUtils.hasText(condition.getTeamName()) ? condition.getTeamName() : null;
+        var ageGoe = condition.getAgeGoe();
+        var ageLoe = condition.getAgeLoe();
+
+        lock.readLock().lock();
+        try {
+            var candidates = candidates(username, teamName, ageGoe, ageLoe);
+            var result = new ArrayList<MemberTeamDto>();
+            for (var id : candidates) {
+                var row = byId.get(id);
+                if (condition.matches(row)) {
+                    result.add(copy(row));
+                }
+            }
+            result.sort(Comparator.comparing(MemberTeamDto::getMemberId));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * <p>DB 대비 뒤처진 정도</p>
+     * <p>건별 변경은 커밋 직후 반영되므로 0이고, 벌크 연산 후 전체 재적재 중이면 요청 시점부터 지난 시간임.</p>
+     */
+    public Duration getStaleness() {
+        var requestedAt = reloadRequestedAt;
+        if (requestedAt == 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(System.nanoTime() - requestedAt);
+    }
+
+    public long getLastAppliedAt() {
+        return lastAppliedAt;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 벌크 연산처럼 엔티티 이벤트가 발생하지 않는 변경 후 호출함. 커밋되면 백그라운드에서 전체를 다시 읽음.
+     */
+    public void reloadAfterCommit() {
+        if (!enabled) {
+            return;
+        }
+        reloadRequestedAt = System.nanoTime();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleReload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                scheduleReload();
+            }
+        });
+    }
+
+    /**
+     * 예약된 재적재가 끝나면 완료됨 (테스트용)
+     */
+    CompletableFuture<Void> scheduledReload() {
+        return scheduledReload;
+    }
+
+    /**
+     * 실행 중인 재적재는 스냅샷이 이미 지나갔을 수 있으므로, 예약만 합치고 실행 중일 때 들어온 요청은 다음 재적재로 예약함
+     */
+    private void scheduleReload() {
+        if (!reloadScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduledReload = CompletableFuture.runAsync(() -> {
+                reloadScheduled.set(false);
+                reload();
+            }, reloadExecutor).exceptionally(e -> {
+                log.warn("회원 읽기 모델 재적재 실패", e);
+                return null;
+            });
+        } catch (TaskRejectedException e) {
+            // 종료 중
+            reloadScheduled.set(false);
+        }
+    }
+
+    public void reload() {
+        reload(() -> {
+        });
+    }
+
+    /**
+     * @param afterSnapshot 스냅샷 조회 후, 교체 전에 실행됨 (테스트용)
+     */
+    void reload(Runnable afterSnapshot) {
+        synchronized (reloadMonitor) {
+            var requestedAt = reloadRequestedAt;
+            lock.writeLock().lock();
+            try {
+                pendingChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                var teams = queryFactory
+                        .select(team.id, team.name)
+                        .from(team)
+                        .fetch();
+                var rows = queryFactory
+                        .select(MEMBER_TEAM)
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .fetch();
+                afterSnapshot.run();
+
+                lock.writeLock().lock();
+                try {
+                    byId.clear();
+                    byUsername.clear();
+                    byTeamName.clear();
+                    byTeamId.clear();
+                    byAge.clear();
+                    teamNames.clear();
+                    teams.forEach(t -> teamNames.put(t.get(team.id), t.get(team.name)));
+                    rows.forEach(this::index);
+                    // 스냅샷 조회 중에 커밋된 변경은 스냅샷에 빠져 있을 수 있으므로 다시 적용함
+                    pendingChanges.forEach(Runnable::run);
+                    ready = true;
+                    if (reloadRequestedAt == requestedAt) {
+                        reloadRequestedAt = 0;
+                    }
+                    lastAppliedAt = System.currentTimeMillis();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        upsert(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        upsert(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        var entity = event.getEntity();
+        if (entity instanceof Member) {
+            var memberId = ((Member) entity).getId();
+            apply(() -> unindex(memberId));
+        } else if (entity instanceof Team) {
+            var teamId = ((Team) entity).getId();
+            apply(() -> {
+                teamNames.remove(teamId);
+                renameTeam(teamId, null);
+            });
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        var type = persister.getMappedClass();
+        return type == Member.class || type == Team.class;
+    }
+
+    /**
+     * 이벤트 시점의 값으로 변경을 만들어 둠 -> 재적재 후 다시 적용해도 같은 결과가 나옴
+     */
+    private void upsert(Object entity) {
+        if (entity instanceof Member) {
+            var changed = (Member) entity;
+            var memberId = changed.getId();
+            var username = changed.getUsername();
+            var age = changed.getAge();
+            var teamId = EntityIds.teamId(changed.getTeam());
+            // 같은 트랜잭션에서 새로 만든 팀은 프록시가 아님
+            var loadedTeamName = teamId == null || changed.getTeam() instanceof HibernateProxy
+                    ? null
+                    : changed.getTeam().getName();
+            apply(() -> {
+                unindex(memberId);
+                index(new MemberTeamDto(memberId, username, age, teamId, teamName(teamId, loadedTeamName)));
+            });
+        } else if (entity instanceof Team) {
+            var changed = (Team) entity;
+            var teamId = changed.getId();
+            var name = changed.getName();
+            apply(() -> {
+                teamNames.put(teamId, name);
+                renameTeam(teamId, name);
+            });
+        }
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            lastAppliedAt = System.currentTimeMillis();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void renameTeam(Long teamId, String name) {
+        var memberIds = byTeamId.get(teamId);
+        if (memberIds == null) {
+            return;
+        }
+        for (var memberId : List.copyOf(memberIds)) {
+            var row = byId.get(memberId);
+            unindex(memberId);
+            index(new MemberTeamDto(row.getMemberId(), row.getUsername(), row.getAge(),
+                    name == null ? null : teamId, name));
+        }
+    }
+
+    private Collection<Long> candidates(String username, String teamName, Integer ageGoe, Integer ageLoe) {
+        if (username != null) {
+            return byUsername.getOrDefault(username, Set.of());
+        }
+        if (teamName != null) {
+            return byTeamName.getOrDefault(teamName, Set.of());
+        }
+        if (ageGoe != null || ageLoe != null) {
+            var from = ageGoe == null ? Integer.MIN_VALUE : ageGoe;
+            var to = ageLoe == null ? Integer.MAX_VALUE : ageLoe;
+            if (from > to) {
+                return Set.of();
+            }
+            var result = new ArrayList<Long>();
+            byAge.subMap(from, true, to, true).values().forEach(result::addAll);
+            return result;
+        }
+        return byId.keySet();
+    }
+
+    private void index(MemberTeamDto row) {
+        var id = row.getMemberId();
+        byId.put(id, row);
+        add(byUsername, row.getUsername(), id);
+        add(byTeamName, row.getTeamName(), id);
+        add(byTeamId, row.getTeamId(), id);
+        add(byAge, row.getAge(), id);
+    }
+
+    private void unindex(Long id) {
+        var row = byId.remove(id);
+        if (row == null) {
+            return;
+        }
+        remove(byUsername, row.getUsername(), id);
+        remove(byTeamName, row.getTeamName(), id);
+        remove(byTeamId, row.getTeamId(), id);
+        remove(byAge, row.getAge(), id);
+    }
+
+    private String teamName(Long teamId, String loadedTeamName) {
+        if (teamId == null) {
+            return null;
+        }
+        if (teamNames.containsKey(teamId)) {
+            return teamNames.get(teamId);
+        }
+        return loadedTeamName;
+    }
+
+    private static <K> void add(Map<K, Set<Long>> index, K key, Long id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static <K> void remove(Map<K, Set<Long>> index, K key, Long id) {
+        if (key == null) {
+            return;
+        }
+        var ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static MemberTeamDto copy(MemberTeamDto row) {
+        return new MemberTeamDto(row.getMemberId(), row.getUsername(), row.getAge(), row.getTeamId(), row.getTeamName());
+    }
+
+}
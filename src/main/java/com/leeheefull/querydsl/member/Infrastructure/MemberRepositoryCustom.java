@@ -1,9 +1,14 @@
 package com.leeheefull.querydsl.member.Infrastructure;
 
+import com.leeheefull.querydsl.member.domain.Member;
+import com.leeheefull.querydsl.member.dto.MemberCountStrategy;
+import com.leeheefull.querydsl.member.dto.MemberIngestResult;
 import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import com.leeheefull.querydsl.member.dto.MemberSearchPage;
 import com.leeheefull.querydsl.member.dto.MemberTeamDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -13,4 +18,64 @@ public interface MemberRepositoryCustom {
 
     Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable);
 
+    /**
+     * <p>total 계산 방식을 골라서 하는 페이지 검색</p>
+     * <p>BOUNDED, ESTIMATED는 정확한 count 쿼리를 실행하지 않으며,
+     * 응답의 totalExact로 total이 정확한 값인지 알 수 있음.</p>
+     */
+    MemberSearchPage searchPage(MemberSearchCondition condition, Pageable pageable, MemberCountStrategy countStrategy);
+
+    /**
+     * <p>전체 개수 없이 다음 페이지 여부만 알려주는 페이지 검색</p>
+     * <p>pageSize + 1 개를 조회해서 hasNext를 판단하므로 count 쿼리를 실행하지 않음.</p>
+     */
+    Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable);
+
+    /**
+     * <p>여러 검색 조건을 한 번에 검색</p>
+     * <p>나이 조건이 같은 username 조건들은 username IN, 팀 이름 조건들은 team.name IN 쿼리 하나로
+     * 나이 조건과 함께 조회한 뒤 조건별로 다시 나눔. 나이 조건만 있는 조건은 서로 다른 조건마다 한 번씩 조회함.
+     * 결과는 conditions와 같은 순서임.</p>
+     */
+    List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions);
+
+    /**
+     * <p>커서(member.id) 기반 페이지 검색</p>
+     * <p>offset 없이 cursor 이후의 회원을 id 순으로 size 만큼 조회함. cursor가 null이면 처음부터 조회함.</p>
+     */
+    List<MemberTeamDto> searchAfter(MemberSearchCondition condition, Long cursor, int size);
+
+    /**
+     * <p>대량 회원 적재</p>
+     * <p>JDBC batch insert로 저장하고, batchSize 마다 flush/clear 해서 영속성 컨텍스트가 커지지 않도록 함.</p>
+     * <p>회원의 팀은 미리 저장되어 있어야 함. 저장이 끝난 회원은 팀의 members 컬렉션에서 빠짐.</p>
+     */
+    MemberIngestResult saveAllBatched(Iterable<Member> members);
+
+    /**
+     * <p>벌크 연산: 검색 조건에 맞는 회원의 나이를 delta 만큼 더함</p>
+     * <p>회원을 메모리에 올리지 않고 UPDATE 문으로 처리하며, 대상 회원의 id를 chunk-size 개씩 끊어서(keyset) 실행함.
+     * 트랜잭션 밖에서 호출하면 chunk 마다 따로 커밋하므로 락을 오래 잡지 않지만, 중간에 실패하면 앞 chunk는 이미 반영되어 있음.
+     * 트랜잭션 안에서 호출하면 그 트랜잭션에 참여함.</p>
+     * <p>실행 전 flush, 실행 후 clear 하므로 영속성 컨텍스트와 DB가 어긋나지 않음.</p>
+     *
+     * @return 변경된 row 수
+     */
+    long bulkAddAge(MemberSearchCondition condition, int delta);
+
+    /**
+     * 벌크 연산: 검색 조건에 맞는 회원의 팀을 teamId로 변경
+     *
+     * @param teamId null이면 팀을 해제함
+     * @return 변경된 row 수
+     */
+    long bulkChangeTeam(MemberSearchCondition condition, Long teamId);
+
+    /**
+     * 벌크 연산: 검색 조건에 맞는 회원 삭제
+     *
+     * @return 삭제된 row 수
+     */
+    long bulkDelete(MemberSearchCondition condition);
+
 }
@@ -1,78 +1,473 @@
 package com.leeheefull.querydsl.member.Infrastructure;
 
+import com.leeheefull.config.SqlStatementCounter;
+import com.leeheefull.querydsl.member.domain.Member;
+import com.leeheefull.querydsl.member.domain.Team;
+import com.leeheefull.querydsl.member.dto.MemberCountStrategy;
+import com.leeheefull.querydsl.member.dto.MemberIngestResult;
 import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import com.leeheefull.querydsl.member.dto.MemberSearchPage;
 import com.leeheefull.querydsl.member.dto.MemberTeamDto;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.leeheefull.querydsl.member.domain.QMember.member;
 import static com.leeheefull.querydsl.member.domain.QTeam.team;
-import static com.querydsl.core.types.Projections.constructor;
+import static com.leeheefull.querydsl.member.Infrastructure.MemberProjections.MEMBER_TEAM;
+import static com.querydsl.jpa.JPAExpressions.select;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    private final EntityManager em;
+
     private final JPAQueryFactory queryFactory;
 
+    private final MemberCountCache countCache;
+
+    private final MemberSearchQueryTemplates queryTemplates;
+
+    private final MemberPageExecutor pageExecutor;
+
+    private final MemberSearchCoalescer coalescer;
+
+    private final QueryMetrics queryMetrics;
+
+    private final MemberJoinPlanner joinPlanner;
+
+    private final MemberChangeEventListener changeEventListener;
+
+    private final MemberReadModel readModel;
+
+    private final TeamStatisticsRepository teamStatisticsRepository;
+
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * hibernate.jdbc.batch_size의 배수로 맞추는 것이 좋음
+     */
+    @Value("${member.ingest.batch-size:1000}")
+    private int ingestBatchSize;
+
+    /**
+     * 벌크 연산 한 번(트랜잭션 하나)에 처리할 회원 수
+     */
+    @Value("${member.bulk.chunk-size:10000}")
+    private long bulkChunkSize;
+
+    @Value("${member.batch-search.in-size:1000}")
+    private int batchInSize;
+
+    /**
+     * BOUNDED count의 상한
+     */
+    @Value("${member.count.bound:10000}")
+    private long countBound;
+
+    /**
+     * ESTIMATED count에서 표본으로 셀 member.id 개수 (sample-windows 개 구간으로 나눔)
+     */
+    @Value("${member.count.sample-size:10000}")
+    private long countSampleSize;
+
+    @Value("${member.count.sample-windows:4}")
+    private int countSampleWindows;
+
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
-                .select(constructor(
-                        MemberTeamDto.class,
-                        member.id,
-                        member.username,
-                        member.age,
-                        team.id,
-                        team.name))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe()))
-                .fetch();
+        // member.read-model.enabled=true 이면 DB 대신 인메모리 읽기 모델에서 조회함
+        if (readModel.isReady()) {
+            return queryMetrics.list("member.search.readModel", () -> readModel.search(condition));
+        }
+        // 동시에 들어온 같은 검색은 한 번만 조회함
+        // 같은 List를 여러 호출자가 받으므로 수정할 수 없게 감쌈 (searchPage의 Page.getContent()는 원래 수정 불가)
+        return coalescer.execute("member.search", condition, null,
+                () -> Collections.unmodifiableList(
+                        queryMetrics.list("member.search", () -> queryTemplates.search(condition))));
     }
 
     @Override
     public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
-        var content = queryFactory
-                .select(constructor(
-                        MemberTeamDto.class,
-                        member.id,
-                        member.username,
-                        member.age,
-                        team.id,
-                        team.name))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe()))
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetch();
-
-        var countQuery = queryFactory
-                .select(member.count())
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe()));
+        return searchPage(condition, pageable, MemberCountStrategy.EXACT);
+    }
 
+    @Override
+    public MemberSearchPage searchPage(MemberSearchCondition condition, Pageable pageable,
+                                       MemberCountStrategy countStrategy) {
+        // 검색 조건 형태별로 미리 만들어 둔 JPQL에 값만 바인딩함
         // countQuery 최적화 (countQuery 생략)
         // 1. 페이지 시작이면서 컨텐츠 사이즈가 페이지 사이즈보다 작을 때
         // 2. 마지막 페이지일 때
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+        // 생략하지 못한 경우에도 같은 검색 조건의 total은 countCache에서 재사용함 (EXACT)
+        // count를 생략하면 total은 content로 계산되므로 정확함
+        // 동시에 들어온 같은 검색(조건, 페이지, count 방식)은 한 번만 조회함
+        // BOUNDED, ESTIMATED는 total이 실제보다 작을 수 있으므로 한 개를 더 조회해서 hasNext를 판단함
+        // -> total 이후의 페이지도 계속 넘길 수 있고, 마지막 페이지에 닿으면 total은 정확해짐
+        var probe = countStrategy != MemberCountStrategy.EXACT;
+        return coalescer.execute("member.searchPage:" + countStrategy, condition, pageable, () -> {
+            var totalExact = new AtomicBoolean(true);
+            var hasNext = new AtomicBoolean();
+            var page = pageExecutor.getPage(
+                    () -> {
+                        var content = queryMetrics.list("member.searchPage",
+                                () -> queryTemplates.search(condition, pageable.getOffset(),
+                                        pageable.getPageSize() + (probe ? 1 : 0)));
+                        if (probe && content.size() > pageable.getPageSize()) {
+                            hasNext.set(true);
+                            return content.subList(0, pageable.getPageSize());
+                        }
+                        return content;
+                    },
+                    pageable,
+                    () -> count(condition, countStrategy, totalExact));
+
+            var total = page.getTotalElements();
+            if (probe) {
+                var offset = pageable.getOffset();
+                if (hasNext.get()) {
+                    total = Math.max(total, offset + pageable.getPageSize() + 1);
+                } else if (page.hasContent() || offset == 0) {
+                    total = offset + page.getNumberOfElements();
+                    totalExact.set(true);
+                } else {
+                    // 마지막 페이지를 지난 빈 페이지: 실제 total은 offset 이하임
+                    total = Math.min(total, offset);
+                }
+            }
+            return new MemberSearchPage(page.getContent(), pageable, total, countStrategy, totalExact.get());
+        });
+    }
+
+    @Override
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        // 한 개를 더 조회해서 다음 페이지가 있는지 확인하고, 더 조회한 한 개는 버림
+        var content = queryMetrics.list("member.searchSlice",
+                () -> queryTemplates.search(condition, pageable.getOffset(), pageable.getPageSize() + 1));
+        var hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private long count(MemberSearchCondition condition, MemberCountStrategy countStrategy, AtomicBoolean totalExact) {
+        switch (countStrategy) {
+            case BOUNDED:
+                var bounded = queryMetrics.count("member.searchPage.boundedCount",
+                        () -> queryTemplates.boundedCount(condition, countBound));
+                if (bounded > countBound) {
+                    totalExact.set(false);
+                    return countBound;
+                }
+                return bounded;
+            case ESTIMATED:
+                return queryMetrics.count("member.searchPage.estimatedCount",
+                        () -> estimateCount(condition, totalExact));
+            default:
+                return countCache.get(condition,
+                        () -> queryMetrics.count("member.searchPage.count", () -> queryTemplates.count(condition)));
+        }
+    }
+
+    /**
+     * <p>member.id 범위에 고르게 흩어진 구간들만 세고, 전체 id 범위 크기로 환산함 (가정은 MemberCountStrategy.ESTIMATED 참고)</p>
+     * <p>id가 거의 연속이라면 구간당 일치 비율이 전체와 비슷함.
+     * 각 구간은 PK 범위 스캔이라 테이블 크기와 상관없이 비용이 일정함.
+     * id 범위가 표본보다 작으면 그냥 정확히 셈.</p>
+     */
+    private long estimateCount(MemberSearchCondition condition, AtomicBoolean totalExact) {
+        var bounds = queryTemplates.idBounds();
+        if (bounds == null) {
+            return 0;
+        }
+        var span = bounds[1] - bounds[0] + 1;
+        var windowSize = Math.max(1, countSampleSize / countSampleWindows);
+        var sampled = windowSize * countSampleWindows;
+        if (span <= sampled) {
+            return queryTemplates.count(condition);
+        }
+
+        long matched = 0;
+        for (int i = 0; i < countSampleWindows; i++) {
+            var from = countSampleWindows == 1 ? bounds[0]
+                    : bounds[0] + (span - windowSize) * i / (countSampleWindows - 1);
+            matched += queryTemplates.countBetween(condition, from, from + windowSize - 1);
+        }
+        totalExact.set(false);
+        return Math.round((double) matched * span / sampled);
+    }
+
+    @Override
+    public List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions) {
+        // 나이 조건이 같은 것끼리 묶어서 IN 쿼리에 나이 조건을 함께 넣음 (키는 나이 조건만 남긴 조건)
+        var normalized = new ArrayList<MemberSearchCondition>(conditions.size());
+        var usernamesByAge = new LinkedHashMap<MemberSearchCondition, Set<String>>();
+        var teamNamesByAge = new LinkedHashMap<MemberSearchCondition, Set<String>>();
+        for (var condition : conditions) {
+            var each = condition.normalize();
+            normalized.add(each);
+            if (each.getUsername() != null) {
+                usernamesByAge.computeIfAbsent(ageOnly(each), k -> new LinkedHashSet<>()).add(each.getUsername());
+            } else if (each.getTeamName() != null) {
+                teamNamesByAge.computeIfAbsent(ageOnly(each), k -> new LinkedHashSet<>()).add(each.getTeamName());
+            }
+        }
+
+        var byUsername = new HashMap<MemberSearchCondition, List<MemberTeamDto>>();
+        usernamesByAge.forEach((age, usernames) -> byUsername.put(age,
+                batchFetch("member.searchBatch.username", usernames, age, false, member.username::in)));
+        var byTeamName = new HashMap<MemberSearchCondition, List<MemberTeamDto>>();
+        teamNamesByAge.forEach((age, teamNames) -> byTeamName.put(age,
+                batchFetch("member.searchBatch.teamName", teamNames, age, true, team.name::in)));
+
+        // 나이 조건만 있거나 조건이 없으면 합칠 IN 목록이 없으므로 같은 조건은 한 번만 조회함
+        var others = new HashMap<MemberSearchCondition, List<MemberTeamDto>>();
+        var result = new ArrayList<List<MemberTeamDto>>(normalized.size());
+        for (var condition : normalized) {
+            if (condition.getUsername() != null) {
+                result.add(filter(byUsername.get(ageOnly(condition)), condition));
+            } else if (condition.getTeamName() != null) {
+                result.add(filter(byTeamName.get(ageOnly(condition)), condition));
+            } else {
+                result.add(others.computeIfAbsent(condition, this::search));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<MemberTeamDto> searchAfter(MemberSearchCondition condition, Long cursor, int size) {
+        // offset 대신 member.id 인덱스를 타고 cursor 다음 위치부터 읽기 때문에
+        // 페이지가 깊어져도 건너뛰는 row를 스캔하지 않음
+        return queryMetrics.list("member.searchAfter", () -> joinPlanner.join(queryFactory
+                        .select(MEMBER_TEAM)
+                        .from(member), teamJoin("member.searchAfter", condition))
+                .where(idGt(cursor),
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()))
+                .orderBy(member.id.asc())
+                .limit(size)
+                .fetch());
+    }
+
+    @Transactional
+    @Override
+    public MemberIngestResult saveAllBatched(Iterable<Member> members) {
+        var start = System.nanoTime();
+        long rows = 0;
+        var teams = Collections.newSetFromMap(new IdentityHashMap<Team, Boolean>());
+        for (var member : members) {
+            em.persist(member);
+            if (member.getTeam() != null) {
+                teams.add(member.getTeam());
+            }
+            if (++rows % ingestBatchSize == 0) {
+                flushAndClear(teams);
+            }
+        }
+        flushAndClear(teams);
+
+        var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new MemberIngestResult(rows, elapsedMillis);
+    }
+
+    @Override
+    public long bulkAddAge(MemberSearchCondition condition, int delta) {
+        return bulk(condition, idRange -> queryFactory
+                .update(member)
+                .set(member.age, member.age.add(delta))
+                .where(bulkWhere(condition, idRange))
+                .execute());
+    }
+
+    @Override
+    public long bulkChangeTeam(MemberSearchCondition condition, Long teamId) {
+        if (teamId == null) {
+            return bulk(condition, idRange -> queryFactory
+                    .update(member)
+                    .setNull(member.team)
+                    .where(bulkWhere(condition, idRange))
+                    .execute());
+        }
+        return bulk(condition, idRange -> queryFactory
+                .update(member)
+                .set(member.team, em.getReference(Team.class, teamId))
+                .where(bulkWhere(condition, idRange))
+                .execute());
+    }
+
+    @Override
+    public long bulkDelete(MemberSearchCondition condition) {
+        return bulk(condition, idRange -> queryFactory
+                .delete(member)
+                .where(bulkWhere(condition, idRange))
+                .execute());
+    }
+
+    /**
+     * <p>new Member(.., team)은 team.members에도 회원을 추가하므로 em.clear() 만으로는 저장한 회원이 힙에서 사라지지 않음.</p>
+     * <p>team.members는 연관관계의 주인이 아니라(mappedBy) 비워도 DB에는 영향이 없음.</p>
+     */
+    private void flushAndClear(Set<Team> teams) {
+        em.flush();
+        em.clear();
+        for (var team : teams) {
+            if (Hibernate.isInitialized(team.getMembers())) {
+                team.getMembers().clear();
+            }
+        }
+        teams.clear();
+    }
+
+    /**
+     * <p>조건에 맞는 회원 id를 오름차순으로 bulkChunkSize 개씩 읽고(keyset), 그 chunk의 첫 id ~ 마지막 id 범위에 벌크 연산을 실행함</p>
+     * <p>실제로 있는 id만 따라가므로 시퀀스(allocationSize) 때문에 생긴 빈 구간에는 SQL을 실행하지 않음.</p>
+     * <p>chunk 하나가 트랜잭션 하나임 (이미 트랜잭션이 있으면 참여).
+     * 벌크 연산은 영속성 컨텍스트를 거치지 않으므로 실행 전에 flush, 실행 후에 clear 함.
+     * 트랜잭션이 없어도 OSIV로 요청에 묶인 영속성 컨텍스트가 있을 수 있으므로 clear는 항상 함.</p>
+     */
+    private long bulk(MemberSearchCondition condition, Function<BooleanExpression, Long> statement) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            em.flush();
+        }
+
+        long affected = SqlStatementCounter.chunked(() -> bulkChunks(condition, statement));
+
+        em.clear();
+        if (affected > 0) {
+            // 읽기 모델/팀 통계는 전체를 다시 읽음 (트랜잭션 밖이면 바로)
+            readModel.reloadAfterCommit();
+            teamStatisticsRepository.reloadAfterCommit();
+        }
+        return affected;
+    }
+
+    private long bulkChunks(MemberSearchCondition condition, Function<BooleanExpression, Long> statement) {
+        var chunkTx = new TransactionTemplate(transactionManager);
+        long affected = 0;
+        Long after = null;
+        while (true) {
+            var cursor = after;
+            var chunk = chunkTx.execute(status -> {
+                var ids = queryFactory
+                        .select(member.id)
+                        .from(member)
+                        .where(bulkWhere(condition, idGt(cursor)))
+                        .orderBy(member.id.asc())
+                        .limit(bulkChunkSize)
+                        .fetch();
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                var lastId = ids.get(ids.size() - 1);
+                var rows = statement.apply(member.id.between(ids.get(0), lastId));
+                // 엔티티 이벤트가 발생하지 않으므로 캐시 무효화를 직접 알림 (chunk 커밋 시점에 한 번 더 무효화됨)
+                changeEventListener.changed();
+                return new long[]{rows, lastId};
+            });
+            if (chunk == null) {
+                return affected;
+            }
+            affected += chunk[0];
+            after = chunk[1];
+        }
+    }
+
+    /**
+     * 벌크 UPDATE/DELETE에는 join을 쓸 수 없어서 팀 이름 조건은 서브쿼리로 처리함
+     */
+    private BooleanExpression[] bulkWhere(MemberSearchCondition condition, BooleanExpression idRange) {
+        return new BooleanExpression[]{
+                idRange,
+                usernameEq(condition.getUsername()),
+                teamNameIn(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe())
+        };
+    }
+
+    private BooleanExpression teamNameIn(String teamName) {
+        if (StringUtils.hasText(teamName)) {
+            return member.team.id.in(select(team.id)
+                    .from(team)
+                    .where(team.name.eq(teamName)));
+        }
+        return null;
+    }
+
+    /**
+     * IN 목록이 너무 길어지지 않도록 batchInSize 단위로 나누어 조회함
+     */
+    private List<MemberTeamDto> batchFetch(String name, Collection<String> values, MemberSearchCondition age,
+                                           boolean teamPredicate, Function<Collection<String>, BooleanExpression> in) {
+        var chunks = new ArrayList<List<String>>();
+        var all = new ArrayList<>(values);
+        for (int from = 0; from < all.size(); from += batchInSize) {
+            chunks.add(all.subList(from, Math.min(from + batchInSize, all.size())));
+        }
+
+        return SqlStatementCounter.chunked(() -> {
+            var rows = new ArrayList<MemberTeamDto>();
+            for (var chunk : chunks) {
+                rows.addAll(queryMetrics.list(name, () -> joinPlanner.join(queryFactory
+                                .select(MEMBER_TEAM)
+                                .from(member), joinPlanner.plan(name, teamPredicate, true))
+                        .where(in.apply(chunk),
+                                ageGoe(age.getAgeGoe()),
+                                ageLoe(age.getAgeLoe()))
+                        .fetch()));
+            }
+            return rows;
+        });
+    }
+
+    private static MemberSearchCondition ageOnly(MemberSearchCondition condition) {
+        return new MemberSearchCondition(null, null, condition.getAgeGoe(), condition.getAgeLoe());
+    }
+
+    private static List<MemberTeamDto> filter(List<MemberTeamDto> rows, MemberSearchCondition condition) {
+        return rows.stream()
+                .filter(condition::matches)
+                .collect(Collectors.toList());
+    }
+
+    private MemberJoinPlanner.JoinPlan teamJoin(String queryName, MemberSearchCondition condition) {
+        return joinPlanner.plan(queryName, StringUtils.hasText(condition.getTeamName()), true);
+    }
+
+    private BooleanExpression idGt(Long cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return member.id.gt(cursor);
     }
 
     private BooleanExpression usernameEq(String username) {
@@ -0,0 +1,165 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * <p>동일 검색 요청 합치기 (single flight)</p>
+ * <p>같은 검색 이름, 검색 조건, 페이지, 데이터 버전의 요청이 동시에 들어오면 먼저 온 요청(leader)만 DB를 조회하고
+ * 나머지(follower)는 그 결과를 함께 받음. 결과 객체를 공유하므로 query는 수정할 수 없는 결과를 반환해야 함.</p>
+ * <ul>
+ *     <li>실행이 끝나면 성공/실패와 상관없이 바로 제거되므로 실패가 이후 요청에 남지 않음 (실패는 그 순간 기다리던 요청에만 전달됨)</li>
+ *     <li>follower는 wait-timeout 까지만 기다리고, 넘으면 직접 조회함. 오래 걸리는 실행에는 새로 합류하지 않음</li>
+ *     <li>쓰기 트랜잭션 안에서는 커밋 전 변경이 보여야 하므로 합치지 않음</li>
+ * </ul>
+ */
+@Component
+public class MemberSearchCoalescer {
+
+    private final MemberChangeEventListener changeEventListener;
+
+    private final boolean enabled;
+
+    private final long waitTimeoutNanos;
+
+    private final ConcurrentHashMap<FlightKey, Flight> flights = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+
+    private final Counter followers;
+
+    private final Counter timeouts;
+
+    private final Counter bypassed;
+
+    public MemberSearchCoalescer(MemberChangeEventListener changeEventListener,
+                                 MeterRegistry registry,
+                                 @Value("${member.coalescing.enabled:true}") boolean enabled,
+                                 @Value("${member.coalescing.wait-timeout:2s}") Duration waitTimeout) {
+        this.changeEventListener = changeEventListener;
+        this.enabled = enabled;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.leaders = registry.counter("member.search.coalescing", "result", "leader");
+        this.followers = registry.counter("member.search.coalescing", "result", "follower");
+        this.timeouts = registry.counter("member.search.coalescing", "result", "timeout");
+        this.bypassed = registry.counter("member.search.coalescing", "result", "bypass");
+        Gauge.builder("member.search.coalescing.ratio", this, MemberSearchCoalescer::getCoalescingRatio)
+                .description("DB를 조회하지 않고 다른 요청의 결과를 받은 비율")
+                .register(registry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, MemberSearchCondition condition, Pageable pageable, Supplier<T> query) {
+        if (!enabled || inWriteTransaction()) {
+            bypassed.increment();
+            return query.get();
+        }
+
+        var key = new FlightKey(name, condition.normalize(), pageable, changeEventListener.getDataVersion());
+        var mine = new Flight();
+        var current = flights.putIfAbsent(key, mine);
+        if (current == null) {
+            return lead(key, mine, query);
+        }
+
+        var remainingNanos = waitTimeoutNanos - (System.nanoTime() - current.startedAt);
+        if (remainingNanos <= 0) {
+            timeouts.increment();
+            return query.get();
+        }
+        followers.increment();
+        try {
+            return (T) current.result.get(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return query.get();
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("검색 결과를 기다리다가 중단됨", e);
+        }
+    }
+
+    /**
+     * DB를 조회하지 않고 다른 요청의 결과를 받은 비율
+     */
+    public double getCoalescingRatio() {
+        var shared = followers.count();
+        var total = leaders.count() + shared;
+        return total == 0 ? 0.0 : shared / total;
+    }
+
+    public int getInFlight() {
+        return flights.size();
+    }
+
+    private <T> T lead(FlightKey key, Flight flight, Supplier<T> query) {
+        leaders.increment();
+        try {
+            var result = query.get();
+            flight.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private static boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * 데이터 버전이 바뀐 뒤에 온 요청은 이전 실행에 합류하지 않음
+     */
+    @EqualsAndHashCode
+    private static class FlightKey {
+
+        private final String name;
+        private final MemberSearchCondition condition;
+        private final Pageable pageable;
+        private final long dataVersion;
+
+        private FlightKey(String name, MemberSearchCondition condition, Pageable pageable, long dataVersion) {
+            this.name = name;
+            this.condition = condition;
+            this.pageable = pageable;
+            this.dataVersion = dataVersion;
+        }
+
+    }
+
+    private static class Flight {
+
+        private final long startedAt = System.nanoTime();
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+    }
+
+}
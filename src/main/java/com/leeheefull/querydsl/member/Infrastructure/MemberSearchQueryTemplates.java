@@ -0,0 +1,203 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import com.leeheefull.querydsl.member.dto.MemberTeamDto;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.leeheefull.querydsl.member.domain.QMember.member;
+import static com.leeheefull.querydsl.member.domain.QTeam.team;
+
+/**
+ * <p>검색 조건 형태(shape)별 JPQL 템플릿</p>
+ * <p>MemberSearchCondition의 필터는 4개라서 가능한 where 절은 16가지뿐임.
+ * 애플리케이션 시작 시 형태별로 Querydsl을 한 번만 직렬화해 두고, 요청마다 파라미터 값만 바인딩함.</p>
+ * <p>-> 요청마다 BooleanExpression 트리 생성, JPQL 직렬화, 생성자 리플렉션 비용이 없어짐.</p>
+ * <p>조인 방식은 {@link MemberJoinPlanner}가 형태별로 정함.</p>
+ */
+@Component
+public class MemberSearchQueryTemplates {
+
+    private static final int USERNAME = 1;
+    private static final int TEAM_NAME = 1 << 1;
+    private static final int AGE_GOE = 1 << 2;
+    private static final int AGE_LOE = 1 << 3;
+
+    private static final int SHAPE_COUNT = 1 << 4;
+
+    private final EntityManager em;
+
+    private final String[] contentTemplates = new String[SHAPE_COUNT];
+
+    private final String[] countTemplates = new String[SHAPE_COUNT];
+
+    private final String[] idTemplates = new String[SHAPE_COUNT];
+
+    private final String[] sampleCountTemplates = new String[SHAPE_COUNT];
+
+    private final String idBoundsTemplate = new JPAQuery<>()
+            .select(member.id.min(), member.id.max())
+            .from(member)
+            .toString();
+
+    public MemberSearchQueryTemplates(EntityManager em, MemberJoinPlanner joinPlanner) {
+        this.em = em;
+        for (int shape = 0; shape < SHAPE_COUNT; shape++) {
+            var teamPredicate = (shape & TEAM_NAME) != 0;
+            var contentPlan = joinPlanner.plan("member.search[" + shape + "]", teamPredicate, true);
+            var countPlan = joinPlanner.plan("member.searchPage.count[" + shape + "]", teamPredicate, false);
+
+            contentTemplates[shape] = joinPlanner.join(new JPAQuery<>()
+                            .select(member.id, member.username, member.age, team.id, team.name)
+                            .from(member), contentPlan)
+                    .where(placeholders(shape))
+                    .toString();
+            countTemplates[shape] = joinPlanner.join(new JPAQuery<>()
+                            .select(member.count())
+                            .from(member), countPlan)
+                    .where(placeholders(shape))
+                    .toString();
+            idTemplates[shape] = joinPlanner.join(new JPAQuery<>()
+                            .select(member.id)
+                            .from(member), countPlan)
+                    .where(placeholders(shape))
+                    .toString();
+            // id 구간 조건은 마지막 두 파라미터
+            sampleCountTemplates[shape] = joinPlanner.join(new JPAQuery<>()
+                            .select(member.count())
+                            .from(member), countPlan)
+                    .where(placeholders(shape))
+                    .where(member.id.between(2L, 3L))
+                    .toString();
+        }
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return toDtos(contentQuery(condition).getResultList());
+    }
+
+    /**
+     * @throws ArithmeticException offset이 int 범위를 넘으면 (JPA setFirstResult는 int만 받음)
+     */
+    public List<MemberTeamDto> search(MemberSearchCondition condition, long offset, int limit) {
+        return toDtos(contentQuery(condition)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    public long count(MemberSearchCondition condition) {
+        var shape = shapeOf(condition);
+        return (Long) bind(em.createQuery(countTemplates[shape]), shape, condition).getSingleResult();
+    }
+
+    /**
+     * 조건에 맞는 회원을 bound + 1 개까지만 셈. 결과가 bound보다 크면 bound를 넘은 것임.
+     */
+    public long boundedCount(MemberSearchCondition condition, long bound) {
+        var shape = shapeOf(condition);
+        return bind(em.createQuery(idTemplates[shape]), shape, condition)
+                .setMaxResults((int) Math.min(bound + 1, Integer.MAX_VALUE))
+                .getResultList()
+                .size();
+    }
+
+    /**
+     * member.id가 fromId 이상 toId 이하인 구간에서 조건에 맞는 회원 수
+     */
+    public long countBetween(MemberSearchCondition condition, long fromId, long toId) {
+        var shape = shapeOf(condition);
+        var position = Integer.bitCount(shape);
+        return (Long) bind(em.createQuery(sampleCountTemplates[shape]), shape, condition)
+                .setParameter(position + 1, fromId)
+                .setParameter(position + 2, toId)
+                .getSingleResult();
+    }
+
+    /**
+     * member.id 최소값, 최대값. 회원이 없으면 null
+     */
+    public long[] idBounds() {
+        var row = (Object[]) em.createQuery(idBoundsTemplate).getSingleResult();
+        if (row[0] == null) {
+            return null;
+        }
+        return new long[]{(Long) row[0], (Long) row[1]};
+    }
+
+    private Query contentQuery(MemberSearchCondition condition) {
+        var shape = shapeOf(condition);
+        return bind(em.createQuery(contentTemplates[shape]), shape, condition);
+    }
+
+    /**
+     * 파라미터 순서는 템플릿을 만들 때 where 절에 넣은 순서(username, teamName, ageGoe, ageLoe)와 같음.
+     */
+    private Query bind(Query query, int shape, MemberSearchCondition condition) {
+        int position = 1;
+        if ((shape & USERNAME) != 0) {
+            query.setParameter(position++, condition.getUsername());
+        }
+        if ((shape & TEAM_NAME) != 0) {
+            query.setParameter(position++, condition.getTeamName());
+        }
+        if ((shape & AGE_GOE) != 0) {
+            query.setParameter(position++, condition.getAgeGoe());
+        }
+        if ((shape & AGE_LOE) != 0) {
+            query.setParameter(position, condition.getAgeLoe());
+        }
+        return query;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MemberTeamDto> toDtos(List<?> rows) {
+        var result = new ArrayList<MemberTeamDto>(rows.size());
+        for (Object[] row : (List<Object[]>) rows) {
+            result.add(new MemberTeamDto(
+                    (Long) row[0],
+                    (String) row[1],
+                    (Integer) row[2],
+                    (Long) row[3],
+                    (String) row[4]));
+        }
+        return result;
+    }
+
+    private static int shapeOf(MemberSearchCondition condition) {
+        int shape = 0;
+        if (StringUtils.hasText(condition.getUsername())) {
+            shape |= USERNAME;
+        }
+        if (StringUtils.hasText(condition.getTeamName())) {
+            shape |= TEAM_NAME;
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= AGE_LOE;
+        }
+        return shape;
+    }
+
+    /**
+     * 직렬화할 때 같은 값은 같은 파라미터 번호로 합쳐지므로 자리 표시 값은 서로 달라야 함.
+     */
+    private static BooleanExpression[] placeholders(int shape) {
+        return new BooleanExpression[]{
+                (shape & USERNAME) != 0 ? member.username.eq("username") : null,
+                (shape & TEAM_NAME) != 0 ? team.name.eq("teamName") : null,
+                (shape & AGE_GOE) != 0 ? member.age.goe(0) : null,
+                (shape & AGE_LOE) != 0 ? member.age.loe(1) : null
+        };
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * <p>이름 붙인 쿼리 단위의 지연 시간, 반환 row 수 기록</p>
+ * <p>member.query(지연 시간), member.query.rows(row 수) 미터에 name 태그로 구분해서 남김.</p>
+ */
+@RequiredArgsConstructor
+@Component
+public class QueryMetrics {
+
+    static final String LATENCY = "member.query";
+
+    static final String ROWS = "member.query.rows";
+
+    private final MeterRegistry registry;
+
+    public <T> List<T> list(String name, Supplier<List<T>> query) {
+        var start = System.nanoTime();
+        var result = query.get();
+        record(name, System.nanoTime() - start, result.size());
+        return result;
+    }
+
+    public long count(String name, LongSupplier query) {
+        var start = System.nanoTime();
+        var result = query.getAsLong();
+        record(name, System.nanoTime() - start, 1);
+        return result;
+    }
+
+    public void record(String name, long elapsedNanos, long rows) {
+        Timer.builder(LATENCY)
+                .tag("name", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(ROWS)
+                .tag("name", name)
+                .register(registry)
+                .record(rows);
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>/actuator/queries</p>
+ * <p>statementsPerRequest는 요청 스레드에서 실행된 SQL만 셈 ({@link com.leeheefull.config.SqlStatementCountFilter} 참고).</p>
+ * <p>쿼리 이름별 호출 수, 지연 시간 백분위(ms), 반환 row 수와 요청당 SQL 문 개수, 2차 캐시 적중률, 읽기 모델 상태, 동일 검색 합치기 비율을 한 번에 보여줌.</p>
+ */
+@RequiredArgsConstructor
+@Component
+@Endpoint(id = "queries")
+public class QueryMetricsEndpoint {
+
+    private final MeterRegistry registry;
+
+    private final EntityManagerFactory emf;
+
+    private final MemberReadModel readModel;
+
+    private final MemberSearchCoalescer coalescer;
+
+    @ReadOperation
+    public Map<String, Object> queries() {
+        var queries = new TreeMap<String, Object>();
+        for (var timer : registry.find(QueryMetrics.LATENCY).timers()) {
+            var name = timer.getId().getTag("name");
+            var snapshot = timer.takeSnapshot();
+
+            var stats = new LinkedHashMap<String, Object>();
+            stats.put("count", snapshot.count());
+            stats.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+            stats.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                stats.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+            }
+            var rows = registry.find(QueryMetrics.ROWS).tag("name", name).summary();
+            if (rows != null) {
+                stats.put("rowsTotal", rows.totalAmount());
+                stats.put("rowsMean", rows.mean());
+            }
+            queries.put(name, stats);
+        }
+
+        var result = new LinkedHashMap<String, Object>();
+        result.put("queries", queries);
+        var statements = registry.find("sql.statements.per.request").summary();
+        if (statements != null) {
+            var snapshot = statements.takeSnapshot();
+            var stats = new LinkedHashMap<String, Object>();
+            stats.put("requests", snapshot.count());
+            stats.put("mean", snapshot.mean());
+            stats.put("max", snapshot.max());
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                stats.put("p" + Math.round(percentile.percentile() * 100), percentile.value());
+            }
+            result.put("statementsPerRequest", stats);
+        }
+        result.put("secondLevelCache", secondLevelCache());
+
+        var readModelStats = new LinkedHashMap<String, Object>();
+        readModelStats.put("ready", readModel.isReady());
+        readModelStats.put("size", readModel.size());
+        readModelStats.put("stalenessMs", readModel.getStaleness().toMillis());
+        readModelStats.put("lastAppliedAt", readModel.getLastAppliedAt());
+        result.put("readModel", readModelStats);
+
+        var coalescingStats = new LinkedHashMap<String, Object>();
+        for (var counter : registry.find("member.search.coalescing").counters()) {
+            coalescingStats.put(counter.getId().getTag("result"), counter.count());
+        }
+        coalescingStats.put("ratio", coalescer.getCoalescingRatio());
+        coalescingStats.put("inFlight", coalescer.getInFlight());
+        result.put("coalescing", coalescingStats);
+        return result;
+    }
+
+    private Map<String, Object> secondLevelCache() {
+        var statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        var result = new LinkedHashMap<String, Object>();
+        // hibernate.generate_statistics=true 일 때만 집계됨 (local 프로파일)
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        if (!statistics.isStatisticsEnabled()) {
+            return result;
+        }
+        for (var region : statistics.getSecondLevelCacheRegionNames()) {
+            var regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            var hits = regionStatistics.getHitCount();
+            var misses = regionStatistics.getMissCount();
+            var stats = new LinkedHashMap<String, Object>();
+            stats.put("hits", hits);
+            stats.put("misses", misses);
+            stats.put("puts", regionStatistics.getPutCount());
+            stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+            stats.put("elements", regionStatistics.getElementCountInMemory());
+            result.put(region, stats);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.dto.TeamStatDto;
+
+import java.util.TreeMap;
+
+/**
+ * <p>팀 하나의 회원 나이 집계</p>
+ * <p>삭제 시에도 min/max를 다시 계산하지 않도록 나이별 인원 수(TreeMap)를 함께 관리함. 크기는 서로 다른 나이 개수로 제한됨.</p>
+ */
+class TeamAgeStats {
+
+    private final Long teamId;
+
+    private String teamName;
+
+    private long count;
+
+    private long sum;
+
+    private final TreeMap<Integer, Long> ages = new TreeMap<>();
+
+    TeamAgeStats(Long teamId, String teamName) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+    }
+
+    void rename(String teamName) {
+        this.teamName = teamName;
+    }
+
+    void add(int age, long members) {
+        count += members;
+        sum += (long) age * members;
+        ages.merge(age, members, Long::sum);
+    }
+
+    void add(int age) {
+        add(age, 1);
+    }
+
+    /**
+     * @return 그 나이의 회원이 없으면 빼지 않고 false (DB와 어긋난 것이므로 다시 집계해야 함)
+     */
+    boolean remove(int age) {
+        var members = ages.get(age);
+        if (members == null) {
+            return false;
+        }
+        count--;
+        sum -= age;
+        if (members == 1) {
+            ages.remove(age);
+        } else {
+            ages.put(age, members - 1);
+        }
+        return true;
+    }
+
+    TeamStatDto toDto() {
+        if (count == 0) {
+            return new TeamStatDto(teamId, teamName, 0, 0, null, null, null);
+        }
+        return new TeamStatDto(teamId, teamName, count, sum, ages.firstKey(), ages.lastKey(), (double) sum / count);
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.domain.Team;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.util.Optional;
+
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom {
+
+    /**
+     * <p>select t from Team t where t.name = ?</p>
+     * <p>쿼리 캐시(team-by-name)에는 id만 남고 엔티티는 2차 캐시(team)에서 꺼냄.
+     * Team 테이블이 변경되면 쿼리 캐시는 자동으로 무효화됨.</p>
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = "team-by-name")
+    })
+    Optional<Team> findByName(String name);
+
+}
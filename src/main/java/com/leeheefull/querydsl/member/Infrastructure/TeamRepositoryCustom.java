@@ -0,0 +1,18 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.dto.TeamRosterDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface TeamRepositoryCustom {
+
+    /**
+     * <p>팀과 소속 회원 목록 페이지 조회</p>
+     * <p>Team.members 페치 조인 + 페이징은 메모리에서 페이징되고, 지연 로딩은 N+1이 발생함.
+     * -> 팀 id로만 페이징한 뒤 회원은 팀 id IN 쿼리로 batch-size 만큼씩 나누어 가져옴.</p>
+     * <p>쿼리 수: 팀 1 + 회원 ceil(팀 수 / batch-size) + (필요하면) count 1</p>
+     * <p>정렬은 id, name만 가능하고 다른 속성이면 PropertyReferenceException.</p>
+     */
+    Page<TeamRosterDto> findRosters(Pageable pageable);
+
+}
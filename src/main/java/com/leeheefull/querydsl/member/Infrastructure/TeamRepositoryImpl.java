@@ -0,0 +1,105 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.config.SqlStatementCounter;
+import com.leeheefull.querydsl.member.domain.Team;
+import com.leeheefull.querydsl.member.dto.MemberDto;
+import com.leeheefull.querydsl.member.dto.TeamRosterDto;
+import com.querydsl.core.types.ComparableExpressionBase;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.leeheefull.querydsl.member.domain.QMember.member;
+import static com.leeheefull.querydsl.member.domain.QTeam.team;
+import static com.leeheefull.querydsl.member.Infrastructure.MemberProjections.MEMBER;
+
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    /**
+     * findRosters에서 정렬할 수 있는 속성
+     */
+    private static final Map<String, ComparableExpressionBase<?>> ROSTER_SORTS = Map.of(
+            "id", team.id,
+            "name", team.name);
+
+    private final JPAQueryFactory queryFactory;
+
+    /**
+     * 회원을 가져올 때 IN 절 하나에 넣는 팀 id 개수
+     */
+    @Value("${team.roster.batch-size:100}")
+    private int rosterBatchSize;
+
+    @Override
+    public Page<TeamRosterDto> findRosters(Pageable pageable) {
+        var teams = queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .orderBy(rosterOrders(pageable.getSort()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        var content = new ArrayList<TeamRosterDto>(teams.size());
+        Map<Long, List<MemberDto>> membersByTeamId = new HashMap<>();
+        for (var row : teams) {
+            var roster = new TeamRosterDto(row.get(team.id), row.get(team.name), new ArrayList<>());
+            content.add(roster);
+            membersByTeamId.put(roster.getTeamId(), roster.getMembers());
+        }
+
+        var teamIds = new ArrayList<>(membersByTeamId.keySet());
+        SqlStatementCounter.chunked(() -> {
+            for (int from = 0; from < teamIds.size(); from += rosterBatchSize) {
+                var chunk = teamIds.subList(from, Math.min(from + rosterBatchSize, teamIds.size()));
+                var members = queryFactory
+                        .select(member.team.id, MEMBER)
+                        .from(member)
+                        .where(member.team.id.in(chunk))
+                        .orderBy(member.id.asc())
+                        .fetch();
+                for (var row : members) {
+                    membersByTeamId.get(row.get(member.team.id))
+                            .add(row.get(MEMBER));
+                }
+            }
+        });
+
+        var countQuery = queryFactory
+                .select(team.count())
+                .from(team);
+
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    /**
+     * 같은 값이 있어도 페이지가 겹치지 않도록 마지막에 team.id를 붙임
+     */
+    private static OrderSpecifier<?>[] rosterOrders(Sort sort) {
+        var orders = new ArrayList<OrderSpecifier<?>>();
+        for (var order : sort) {
+            var path = ROSTER_SORTS.get(order.getProperty());
+            if (path == null) {
+                throw new PropertyReferenceException(order.getProperty(), ClassTypeInformation.from(Team.class), List.of());
+            }
+            orders.add(new OrderSpecifier<>(order.isAscending() ? Order.ASC : Order.DESC, path));
+        }
+        orders.add(team.id.asc());
+        return orders.toArray(OrderSpecifier[]::new);
+    }
+
+}
@@ -0,0 +1,404 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.domain.Member;
+import com.leeheefull.querydsl.member.domain.Team;
+import com.leeheefull.querydsl.member.dto.TeamStatDto;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.leeheefull.querydsl.member.domain.QMember.member;
+import static com.leeheefull.querydsl.member.domain.QTeam.team;
+
+/**
+ * <p>팀별 회원 수, 나이 합계/최소/최대/평균</p>
+ * <p>groupBy(team.name)으로 회원 테이블 전체를 집계하는 대신, 시작할 때 한 번 집계해 두고
+ * 회원 추가/삭제/나이 변경/팀 변경(Member.changeTeam)을 커밋 후 이벤트로 받아 증분 반영함.
+ * 조회는 O(팀 수).</p>
+ * <p>엔티티 이벤트가 없는 벌크 연산 후에는 {@link #reloadAfterCommit()}으로 다시 집계함.</p>
+ * <p>증분 반영은 더하기/빼기라서 두 번 적용하면 틀리므로, 집계 결과에 들어갔는지 알 수 없는 변경이 있으면 교체하지 않음.</p>
+ * <ul>
+ *     <li>집계 쿼리 전에 flush 됐지만 아직 커밋 후 이벤트가 오지 않은 변경(inFlight)이 있으면 끝날 때까지 기다림
+ *     -> 쿼리 전에 커밋되고 교체 후에 이벤트가 오는 변경이 없음</li>
+ *     <li>쿼리부터 교체 사이에 flush/커밋 이벤트가 있으면 버리고 다시 집계함</li>
+ *     <li>여러 번 시도해도 안 되면 이전 집계를 유지하고, 진행 중인 변경이 없어질 때 백그라운드에서 다시 집계함</li>
+ * </ul>
+ * <p>이전 상태가 없는 수정 이벤트, 집계에 없는 나이의 삭제처럼 증분 반영할 수 없는 경우에도 백그라운드에서 다시 집계함.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Repository
+public class TeamStatisticsRepository
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final int MAX_RELOAD_ATTEMPTS = 5;
+
+    /**
+     * 시도마다 진행 중인 변경이 끝나기를 기다리는 시간
+     */
+    private static final long IN_FLIGHT_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final EntityManagerFactory emf;
+
+    private final JPAQueryFactory queryFactory;
+
+    @Qualifier("teamStatisticsExecutor")
+    private final Executor reloadExecutor;
+
+    private final FlushListener flushListener = new FlushListener();
+
+    private final Map<Long, TeamAgeStats> stats = new HashMap<>();
+
+    /**
+     * 받은 flush, 커밋 후 이벤트 수 (this로 보호)
+     */
+    private long changeCount;
+
+    /**
+     * flush 됐지만 커밋 결과를 아직 받지 못한 변경 수 (this로 보호)
+     */
+    private long inFlight;
+
+    /**
+     * 다시 집계하지 못해서 진행 중인 변경이 없어지면 다시 집계해야 함 (this로 보호)
+     */
+    private boolean reloadPending;
+
+    private final AtomicBoolean reloadScheduled = new AtomicBoolean();
+
+    private volatile CompletableFuture<Void> scheduledReload = CompletableFuture.completedFuture(null);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        var registry = emf.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        registry.appendListeners(EventType.POST_INSERT, flushListener);
+        registry.appendListeners(EventType.POST_UPDATE, flushListener);
+        registry.appendListeners(EventType.POST_DELETE, flushListener);
+        reload();
+    }
+
+    public synchronized List<TeamStatDto> findAll() {
+        var result = new ArrayList<TeamStatDto>(stats.size());
+        stats.values().forEach(s -> result.add(s.toDto()));
+        result.sort(Comparator.comparing(TeamStatDto::getTeamId));
+        return result;
+    }
+
+    public synchronized Optional<TeamStatDto> findByTeamId(Long teamId) {
+        return Optional.ofNullable(stats.get(teamId)).map(TeamAgeStats::toDto);
+    }
+
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                reload();
+            }
+        });
+    }
+
+    /**
+     * 팀, 나이별 인원 수로 집계하므로 결과 row 수는 팀 수 x 서로 다른 나이 수를 넘지 않음
+     */
+    public void reload() {
+        reload(() -> {
+        });
+    }
+
+    /**
+     * @param afterQuery 집계 쿼리 후, 교체 전에 실행됨 (테스트용)
+     * @return 교체하지 못하고 이전 집계를 유지하면 false
+     */
+    boolean reload(Runnable afterQuery) {
+        for (int attempt = 1; attempt <= MAX_RELOAD_ATTEMPTS; attempt++) {
+            long startedAt;
+            synchronized (this) {
+                if (!awaitNoInFlight()) {
+                    continue;
+                }
+                startedAt = changeCount;
+            }
+            var teams = queryFactory
+                    .select(team.id, team.name)
+                    .from(team)
+                    .fetch();
+            var ages = queryFactory
+                    .select(member.team.id, member.age, member.count())
+                    .from(member)
+                    .where(member.team.isNotNull())
+                    .groupBy(member.team.id, member.age)
+                    .fetch();
+            afterQuery.run();
+
+            synchronized (this) {
+                if (changeCount != startedAt) {
+                    continue;
+                }
+                stats.clear();
+                teams.forEach(t -> stats.put(t.get(team.id), new TeamAgeStats(t.get(team.id), t.get(team.name))));
+                for (var row : ages) {
+                    var teamStats = stats.get(row.get(member.team.id));
+                    if (teamStats != null) {
+                        teamStats.add(row.get(member.age), row.get(member.count()));
+                    }
+                }
+                reloadPending = false;
+                return true;
+            }
+        }
+
+        synchronized (this) {
+            log.warn("team statistics kept while changes are in flight, reloading when they complete");
+            if (inFlight == 0) {
+                scheduleReload();
+            } else {
+                reloadPending = true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 예약된 재집계가 끝나면 완료됨 (테스트용)
+     */
+    CompletableFuture<Void> scheduledReload() {
+        return scheduledReload;
+    }
+
+    /**
+     * 아직 시작하지 않은 재집계가 있으면 합침
+     */
+    private void scheduleReload() {
+        if (!reloadScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduledReload = CompletableFuture.runAsync(() -> {
+                reloadScheduled.set(false);
+                reload();
+            }, reloadExecutor).exceptionally(e -> {
+                log.warn("team statistics reload failed", e);
+                return null;
+            });
+        } catch (TaskRejectedException e) {
+            // 종료 중
+            reloadScheduled.set(false);
+        }
+    }
+
+    /**
+     * this를 잡고 호출해야 함. 기다리는 동안에는 놓으므로 이벤트는 계속 반영됨.
+     */
+    private boolean awaitNoInFlight() {
+        var deadline = System.nanoTime() + IN_FLIGHT_WAIT_NANOS;
+        while (inFlight > 0) {
+            var remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 커밋 후 이벤트(성공, 실패)를 받을 때마다 호출함
+     */
+    private void completed(Object entity) {
+        if (!isTracked(entity)) {
+            return;
+        }
+        changeCount++;
+        if (inFlight > 0 && --inFlight == 0) {
+            notifyAll();
+            if (reloadPending) {
+                reloadPending = false;
+                scheduleReload();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onPostInsert(PostInsertEvent event) {
+        var entity = event.getEntity();
+        completed(entity);
+        if (entity instanceof Team) {
+            var inserted = (Team) entity;
+            stats.putIfAbsent(inserted.getId(), new TeamAgeStats(inserted.getId(), inserted.getName()));
+        } else if (entity instanceof Member) {
+            var inserted = (Member) entity;
+            addMember(inserted.getTeam(), inserted.getAge());
+        }
+    }
+
+    @Override
+    public synchronized void onPostUpdate(PostUpdateEvent event) {
+        var entity = event.getEntity();
+        completed(entity);
+        if (entity instanceof Team) {
+            var updated = (Team) entity;
+            var teamStats = stats.get(updated.getId());
+            if (teamStats != null) {
+                teamStats.rename(updated.getName());
+            }
+        } else if (entity instanceof Member && event.getOldState() == null) {
+            // 분리된 엔티티를 Session.update 하면 이전 상태를 알 수 없음
+            log.warn("member {} updated without old state, reloading team statistics", ((Member) entity).getId());
+            scheduleReload();
+        } else if (entity instanceof Member) {
+            // 나이 변경, 팀 변경 모두 이전 팀에서 빼고 새 팀에 더함
+            var names = Arrays.asList(event.getPersister().getPropertyNames());
+            var ageIndex = names.indexOf("age");
+            var teamIndex = names.indexOf("team");
+            removeMember(event.getOldState()[teamIndex], (Integer) event.getOldState()[ageIndex]);
+            addMember(event.getState()[teamIndex], (Integer) event.getState()[ageIndex]);
+        }
+    }
+
+    @Override
+    public synchronized void onPostDelete(PostDeleteEvent event) {
+        var entity = event.getEntity();
+        completed(entity);
+        if (entity instanceof Team) {
+            stats.remove(((Team) entity).getId());
+        } else if (entity instanceof Member) {
+            var names = Arrays.asList(event.getPersister().getPropertyNames());
+            var state = event.getDeletedState();
+            removeMember(state[names.indexOf("team")], (Integer) state[names.indexOf("age")]);
+        }
+    }
+
+    @Override
+    public synchronized void onPostInsertCommitFailed(PostInsertEvent event) {
+        completed(event.getEntity());
+    }
+
+    @Override
+    public synchronized void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        completed(event.getEntity());
+    }
+
+    @Override
+    public synchronized void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        completed(event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        var type = persister.getMappedClass();
+        return type == Member.class || type == Team.class;
+    }
+
+    private void addMember(Object memberTeam, int age) {
+        var teamId = EntityIds.teamId(memberTeam);
+        if (teamId == null) {
+            return;
+        }
+        stats.computeIfAbsent(teamId, id -> new TeamAgeStats(id,
+                memberTeam instanceof HibernateProxy ? null : ((Team) memberTeam).getName()))
+                .add(age);
+    }
+
+    /**
+     * 팀이 먼저 삭제된 경우에는 팀 집계가 없음
+     */
+    private void removeMember(Object memberTeam, int age) {
+        var teamId = EntityIds.teamId(memberTeam);
+        var teamStats = stats.get(teamId);
+        if (teamStats != null && !teamStats.remove(age)) {
+            log.warn("team {} has no member aged {}, reloading team statistics", teamId, age);
+            scheduleReload();
+        }
+    }
+
+    private static boolean isTracked(Object entity) {
+        return entity instanceof Member || entity instanceof Team;
+    }
+
+    /**
+     * <p>flush 시점(커밋 전) 이벤트로 진행 중인 변경을 셈</p>
+     * <p>커밋 후 이벤트 리스너와 같은 메서드 이름을 쓰므로 따로 등록함.</p>
+     */
+    private class FlushListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            flushed(event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            flushed(event.getEntity());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            flushed(event.getEntity());
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return false;
+        }
+
+        private void flushed(Object entity) {
+            if (!isTracked(entity)) {
+                return;
+            }
+            synchronized (TeamStatisticsRepository.this) {
+                changeCount++;
+                inFlight++;
+            }
+        }
+
+    }
+
+}
@@ -11,8 +11,12 @@ import javax.persistence.*;
 @Entity
 public class Member {
 
+    /**
+     * pooled optimizer: 시퀀스 한 번 호출로 id를 allocationSize 만큼 확보함
+     */
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 100)
     @Column(name = "member_id")
     private Long id;
 
@@ -0,0 +1,29 @@
+package com.leeheefull.querydsl.member.dto;
+
+/**
+ * searchPage의 전체 개수(total) 계산 방식
+ */
+public enum MemberCountStrategy {
+
+    /**
+     * count 쿼리로 정확한 개수를 구함 (기본값)
+     */
+    EXACT,
+
+    /**
+     * member.count.bound 개까지만 셈. 넘으면 total은 bound이고 정확하지 않음 (화면에 "10,000+"로 표시)
+     * bound 이후의 페이지도 조회할 수 있고, 그 페이지의 total은 적어도 다음 페이지가 있을 만큼임.
+     */
+    BOUNDED,
+
+    /**
+     * <p>member.id 구간 몇 개를 표본으로 세고 전체 id 범위로 환산한 추정치</p>
+     * <p>id가 빈틈 없이 연속이라고 가정함. 시퀀스 allocationSize(100)만큼 미리 받은 id는 재시작하면 버려지고
+     * 삭제된 회원도 빈틈이 되므로, 빈틈이 많을수록 실제보다 크게 추정함.
+     * id는 가입 순서이므로 표본 구간은 가입 시기 구간이기도 함.
+     * -> 가입 시기에 따라 비율이 달라지는 조건(최근에 만든 팀 등)은 표본 위치에 따라 크게 틀릴 수 있음.</p>
+     * <p>추정치가 실제보다 작아도 다음 페이지 여부는 한 개를 더 조회해서 판단하므로 페이지 이동은 막히지 않음.</p>
+     */
+    ESTIMATED
+
+}
@@ -0,0 +1,53 @@
+package com.leeheefull.querydsl.member.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * <p>커서 기반 페이지 응답</p>
+ * <p>nextCursor는 클라이언트가 해석하지 않는 불투명 토큰이고, 다음 페이지가 없으면 null임.</p>
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class MemberCursorPage {
+
+    private List<MemberTeamDto> content;
+    private String nextCursor;
+
+    /**
+     * @param content size + 1 개까지 조회한 결과. 한 개가 더 있을 때만 nextCursor를 만들고 더 조회한 한 개는 버림
+     */
+    public static MemberCursorPage of(List<MemberTeamDto> content, int size) {
+        if (content.size() <= size) {
+            return new MemberCursorPage(content, null);
+        }
+        var page = content.subList(0, size);
+        var last = page.get(size - 1);
+        return new MemberCursorPage(page, encode(last.getMemberId()));
+    }
+
+    public static String encode(Long memberId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(String.valueOf(memberId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Long.valueOf(decoded);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다: " + cursor, e);
+        }
+    }
+
+}
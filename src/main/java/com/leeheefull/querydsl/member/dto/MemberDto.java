@@ -1,15 +1,23 @@
 package com.leeheefull.querydsl.member.dto;
 
-import lombok.AllArgsConstructor;
+import com.querydsl.core.annotations.QueryProjection;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @NoArgsConstructor
-@AllArgsConstructor
 @Data
 public class MemberDto {
 
     private String name;
     private int age;
 
+    /**
+     * compileQuerydsl이 QMemberDto(타입이 정해진 프로젝션)를 생성함
+     */
+    @QueryProjection
+    public MemberDto(String name, int age) {
+        this.name = name;
+        this.age = age;
+    }
+
 }
@@ -0,0 +1,22 @@
+package com.leeheefull.querydsl.member.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class MemberIngestResult {
+
+    private long rows;
+    private long elapsedMillis;
+
+    public double getRowsPerSecond() {
+        if (elapsedMillis == 0) {
+            return rows;
+        }
+        return rows * 1000.0 / elapsedMillis;
+    }
+
+}
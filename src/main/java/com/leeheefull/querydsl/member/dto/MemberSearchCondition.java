@@ -3,6 +3,7 @@ package com.leeheefull.querydsl.member.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.util.StringUtils;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -14,4 +15,25 @@ public class MemberSearchCondition {
     private Integer ageGoe;
     private Integer ageLoe;
 
+    /**
+     * 빈 문자열과 null을 같은 조건(필터 없음)으로 취급한 복사본, 캐시 키로 사용함
+     */
+    public MemberSearchCondition normalize() {
+        return new MemberSearchCondition(
+                StringUtils.hasText(username) ? username : null,
+                StringUtils.hasText(teamName) ? teamName : null,
+                ageGoe,
+                ageLoe);
+    }
+
+    /**
+     * 검색 쿼리의 where 절과 같은 기준으로 row가 조건에 맞는지 확인함 (빈 문자열, null은 필터 없음)
+     */
+    public boolean matches(MemberTeamDto row) {
+        return (!StringUtils.hasText(username) || username.equals(row.getUsername()))
+                && (!StringUtils.hasText(teamName) || teamName.equals(row.getTeamName()))
+                && (ageGoe == null || row.getAge() >= ageGoe)
+                && (ageLoe == null || row.getAge() <= ageLoe);
+    }
+
 }
@@ -0,0 +1,33 @@
+package com.leeheefull.querydsl.member.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * <p>total이 정확한 값인지 함께 알려주는 페이지</p>
+ * <p>totalExact가 false이면 totalElements, totalPages는 상한값(BOUNDED) 또는 추정치(ESTIMATED)임.</p>
+ */
+public class MemberSearchPage extends PageImpl<MemberTeamDto> {
+
+    private final MemberCountStrategy countStrategy;
+
+    private final boolean totalExact;
+
+    public MemberSearchPage(List<MemberTeamDto> content, Pageable pageable, long total,
+                            MemberCountStrategy countStrategy, boolean totalExact) {
+        super(content, pageable, total);
+        this.countStrategy = countStrategy;
+        this.totalExact = totalExact;
+    }
+
+    public MemberCountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+
+}
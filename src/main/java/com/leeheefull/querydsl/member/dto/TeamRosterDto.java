@@ -0,0 +1,18 @@
+package com.leeheefull.querydsl.member.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class TeamRosterDto {
+
+    private Long teamId;
+    private String teamName;
+    private List<MemberDto> members;
+
+}
@@ -0,0 +1,20 @@
+package com.leeheefull.querydsl.member.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class TeamStatDto {
+
+    private Long teamId;
+    private String teamName;
+    private long count;
+    private long ageSum;
+    private Integer ageMin;
+    private Integer ageMax;
+    private Double ageAvg;
+
+}
@@ -1,16 +1,47 @@
 package com.leeheefull.querydsl.member.presentation;
 
+import com.leeheefull.querydsl.member.dto.MemberCountStrategy;
+import com.leeheefull.querydsl.member.dto.MemberCursorPage;
 import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import com.leeheefull.querydsl.member.dto.MemberSearchPage;
 import com.leeheefull.querydsl.member.dto.MemberTeamDto;
 import com.leeheefull.querydsl.member.Infrastructure.MemberJpaRepository;
 import com.leeheefull.querydsl.member.Infrastructure.MemberRepository;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @RequiredArgsConstructor
 @RestController
@@ -20,14 +51,162 @@ public class MemberController {
 
     private final MemberRepository memberRepository;
 
+    private final ObjectMapper objectMapper;
+
+    @Qualifier("memberSearchExecutor")
+    private final ThreadPoolTaskExecutor memberSearchExecutor;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final MemberSearchResponseCache responseCache;
+
+    @Value("${member.async.timeout:5s}")
+    private Duration asyncTimeout;
+
+    /**
+     * 커서 검색 한 번에 조회할 수 있는 최대 회원 수
+     */
+    @Value("${member.cursor.max-size:1000}")
+    private int cursorMaxSize;
+
+    /**
+     * 일괄 검색 한 번에 받을 수 있는 최대 조건 수
+     */
+    @Value("${member.batch-search.max-conditions:100}")
+    private int batchMaxConditions;
+
     @GetMapping("/v1/members")
-    public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-        return memberJpaRepository.search(condition);
+    public ResponseEntity<List<MemberTeamDto>> searchMemberV1(MemberSearchCondition condition, WebRequest request) {
+        return responseCache.get("/v1/members", condition, null, request,
+                () -> memberJpaRepository.search(condition));
     }
 
+    /**
+     * 검색 결과를 한 줄에 하나씩 JSON(NDJSON)으로 바로 응답에 씀
+     */
+    @GetMapping(value = "/v1/members/stream", produces = "application/x-ndjson")
+    public void searchMemberStream(MemberSearchCondition condition, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        try (var generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            // root value 사이 구분자를 줄바꿈으로 사용
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            var written = new long[1];
+            memberJpaRepository.stream(condition, row -> {
+                try {
+                    generator.writeObject(row);
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            // 마지막 row 뒤에만 줄바꿈을 붙임 (결과가 없으면 빈 응답)
+            if (written[0] > 0) {
+                generator.writeRaw('\n');
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 여러 검색 조건을 한 번의 요청으로 검색함. 응답은 요청한 조건 순서와 같음.
+     * 조건이 member.batch-search.max-conditions 개를 넘으면 400으로 응답함.
+     */
+    @PostMapping("/v1/members/batch")
+    public List<List<MemberTeamDto>> searchMemberBatch(@RequestBody List<MemberSearchCondition> conditions) {
+        if (conditions.size() > batchMaxConditions) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "conditions must not exceed " + batchMaxConditions);
+        }
+        return memberRepository.searchBatch(conditions);
+    }
+
+    /**
+     * count=BOUNDED|ESTIMATED 이면 정확한 count 쿼리 대신 상한값/추정치를 total로 씀 (totalExact=false)
+     */
     @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPage(condition, pageable);
+    public ResponseEntity<MemberSearchPage> searchMemberV2(MemberSearchCondition condition, Pageable pageable,
+                                                           @RequestParam(defaultValue = "EXACT") MemberCountStrategy count,
+                                                           WebRequest request) {
+        return responseCache.get("/v2/members?count=" + count, condition, pageable, request,
+                () -> memberRepository.searchPage(condition, pageable, count));
+    }
+
+    /**
+     * 전체 개수 없이 다음 페이지 여부만 필요한 무한 스크롤용 검색
+     */
+    @GetMapping("/v2/members/slice")
+    public ResponseEntity<Slice<MemberTeamDto>> searchMemberSlice(MemberSearchCondition condition, Pageable pageable,
+                                                                  WebRequest request) {
+        return responseCache.get("/v2/members/slice", condition, pageable, request,
+                () -> memberRepository.searchSlice(condition, pageable));
+    }
+
+    /**
+     * size는 1 ~ member.cursor.max-size 사이로 맞추고, 잘못된 cursor는 400으로 응답함
+     */
+    @GetMapping("/v2/members/cursor")
+    public MemberCursorPage searchMemberAfter(MemberSearchCondition condition,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int size) {
+        Long after;
+        try {
+            after = MemberCursorPage.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        var limit = Math.max(1, Math.min(size, cursorMaxSize));
+        // 한 개를 더 조회해서 다음 페이지가 있을 때만 nextCursor를 줌 (마지막 페이지가 꽉 차도 빈 페이지로 이어지지 않음)
+        var content = memberRepository.searchAfter(condition, after, limit + 1);
+        return MemberCursorPage.of(content, limit);
+    }
+
+    /**
+     * <p>비동기 검색: 요청 스레드는 바로 반환되고 DB 조회는 memberSearchExecutor에서 실행됨</p>
+     * <p>orTimeout은 응답(504)만 끝내므로, 조회는 같은 시간 제한의 readOnly 트랜잭션에서 실행해서
+     * 트랜잭션 타임아웃이 쿼리 타임아웃(javax.persistence.query.timeout)으로 적용되게 함.
+     * -> 시간이 지나면 DB 쿼리도 취소되고 스레드와 커넥션이 반환됨.</p>
+     */
+    @GetMapping("/v1/members/async")
+    public CompletableFuture<List<MemberTeamDto>> searchMemberV1Async(MemberSearchCondition condition) {
+        return async(() -> memberJpaRepository.search(condition));
+    }
+
+    @GetMapping("/v2/members/async")
+    public CompletableFuture<Page<MemberTeamDto>> searchMemberV2Async(MemberSearchCondition condition, Pageable pageable) {
+        return async(() -> memberRepository.searchPage(condition, pageable));
+    }
+
+    /**
+     * 검색 스레드 풀과 큐가 가득 참
+     */
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(TaskRejectedException.class)
+    public void searchRejected() {
+    }
+
+    /**
+     * 응답 시간 제한(orTimeout) 또는 쿼리 타임아웃
+     */
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    @ExceptionHandler({TimeoutException.class, QueryTimeoutException.class, TransactionTimedOutException.class})
+    public void searchTimeout() {
+    }
+
+    /**
+     * int로 표현할 수 없는 페이지 offset (page * size)
+     */
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(ArithmeticException.class)
+    public void offsetOverflow() {
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> search) {
+        var readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        readOnlyTx.setTimeout((int) Math.max(1, asyncTimeout.toSeconds()));
+        return CompletableFuture.supplyAsync(() -> readOnlyTx.execute(status -> search.get()), memberSearchExecutor)
+                .orTimeout(asyncTimeout.toMillis(), TimeUnit.MILLISECONDS);
     }
 
 }
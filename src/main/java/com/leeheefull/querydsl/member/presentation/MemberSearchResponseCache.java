@@ -0,0 +1,178 @@
+package com.leeheefull.querydsl.member.presentation;
+
+import com.leeheefull.querydsl.member.Infrastructure.MemberChangeEventListener;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * <p>회원 검색 응답 캐시 (ETag / 조건부 GET)</p>
+ * <p>ETag는 협상된 media type과 응답 본문(JSON)의 MD5 이므로 재시작하거나 인스턴스가 달라도 내용이 같으면 같은 값임.
+ * JSON과 바이너리(application/x-member-team)는 캐시 키와 ETag가 서로 다르고, 응답에는 Vary: Accept를 붙임.</p>
+ * <p>응답 본문과 ETag는 최대 max-size 개까지 LRU로 ttl 동안 보관함.
+ * 보관 중이고 회원/팀 데이터 버전이 그대로면 If-None-Match가 일치할 때 DB를 조회하지 않고 304를 응답하고,
+ * 아니면 다시 조회한 본문으로 ETag를 계산해서 비교함 (내용이 그대로면 본문 없이 304).</p>
+ */
+@Component
+public class MemberSearchResponseCache {
+
+    private final MemberChangeEventListener changeEventListener;
+
+    private final ObjectMapper objectMapper;
+
+    private final long ttlNanos;
+
+    private final Map<ResponseKey, Entry> entries;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter notModified;
+
+    public MemberSearchResponseCache(MemberChangeEventListener changeEventListener,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry registry,
+                                     @Value("${member.response-cache.max-size:1000}") int maxSize,
+                                     @Value("${member.response-cache.ttl:60s}") Duration ttl) {
+        this.changeEventListener = changeEventListener;
+        this.objectMapper = objectMapper;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ResponseKey, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hits = registry.counter("member.response.cache", "result", "hit");
+        this.misses = registry.counter("member.response.cache", "result", "miss");
+        this.notModified = registry.counter("member.response.cache", "result", "not_modified");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> get(String path, MemberSearchCondition condition, Pageable pageable,
+                                     WebRequest request, Supplier<T> search) {
+        var version = changeEventListener.getDataVersion();
+        var mediaType = negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        var key = new ResponseKey(path, condition.normalize(), pageable, mediaType);
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && entry.isValid(version, System.nanoTime())) {
+            if (request.checkNotModified(entry.etag)) {
+                notModified.increment();
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entry.etag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+            hits.increment();
+            return ResponseEntity.ok().eTag(entry.etag).varyBy(HttpHeaders.ACCEPT).body((T) entry.body);
+        }
+
+        misses.increment();
+        var body = search.get();
+        var etag = etag(mediaType, body);
+        synchronized (entries) {
+            entries.put(key, new Entry(version, System.nanoTime() + ttlNanos, etag, body));
+        }
+        if (request.checkNotModified(etag)) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(body);
+    }
+
+    /**
+     * <p>Accept 헤더로 응답할 media type을 정함</p>
+     * <p>WebConfig에서 바이너리 컨버터를 JSON 뒤에 추가했으므로, Spring MVC와 같이
+     * 선호도 순으로 보면서 JSON을 포함하는 타입(*&#47;* 등)이 먼저 나오면 JSON임.</p>
+     */
+    static MediaType negotiate(String accept) {
+        if (!StringUtils.hasText(accept)) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType.sortBySpecificityAndQuality(types);
+        for (var type : types) {
+            if (type.includes(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (type.includes(MemberTeamBinaryHttpMessageConverter.MEDIA_TYPE)) {
+                return MemberTeamBinaryHttpMessageConverter.MEDIA_TYPE;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private String etag(MediaType mediaType, Object body) {
+        try {
+            var representation = objectMapper.writeValueAsBytes(List.of(mediaType.toString(), body));
+            return "\"" + DigestUtils.md5DigestAsHex(representation) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("ETag를 계산할 수 없음", e);
+        }
+    }
+
+    @EqualsAndHashCode
+    private static class ResponseKey {
+
+        private final String path;
+        private final MemberSearchCondition condition;
+        private final Pageable pageable;
+        private final MediaType mediaType;
+
+        private ResponseKey(String path, MemberSearchCondition condition, Pageable pageable, MediaType mediaType) {
+            this.path = path;
+            this.condition = condition;
+            this.pageable = pageable;
+            this.mediaType = mediaType;
+        }
+
+    }
+
+    private static class Entry {
+
+        private final long version;
+        private final long expiresAt;
+        private final String etag;
+        private final Object body;
+
+        private Entry(long version, long expiresAt, String etag, Object body) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+            this.etag = etag;
+            this.body = body;
+        }
+
+        private boolean isValid(long currentVersion, long now) {
+            return version == currentVersion && now - expiresAt < 0;
+        }
+
+    }
+
+}
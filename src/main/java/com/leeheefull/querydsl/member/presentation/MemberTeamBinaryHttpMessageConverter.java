@@ -0,0 +1,150 @@
+package com.leeheefull.querydsl.member.presentation;
+
+import com.leeheefull.querydsl.member.dto.MemberTeamDto;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * <p>회원 검색 결과 바이너리 포맷 (Accept: application/x-member-team)</p>
+ * <p>JSON은 기본 포맷으로 유지하고, 이 포맷은 Accept 헤더로 요청할 때만 사용함.</p>
+ * <pre>
+ * int     magic ('M' 'T' 'D' 1)
+ * int     팀 이름 사전 크기 n, 이어서 n개의 팀 이름 (writeUTF: 길이 2바이트 + UTF-8)
+ * int     row 수
+ * row     byte flags (1: username 있음, 2: 팀 있음)
+ *         long memberId, int age, [UTF username], [long teamId, int 팀 이름 사전 index]
+ * </pre>
+ * <p>-> 모든 row에 반복되던 teamName 문자열은 사전 index(4바이트)로 대체됨.</p>
+ */
+public class MemberTeamBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<MemberTeamDto>> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType("application/x-member-team");
+
+    private static final int MAGIC = ('M' << 24) | ('T' << 16) | ('D' << 8) | 1;
+
+    private static final int HAS_USERNAME = 1;
+
+    private static final int HAS_TEAM = 1 << 1;
+
+    public MemberTeamBinaryHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!(type instanceof ParameterizedType)) {
+            return false;
+        }
+        var parameterized = (ParameterizedType) type;
+        return parameterized.getRawType() instanceof Class
+                && List.class.isAssignableFrom((Class<?>) parameterized.getRawType())
+                && parameterized.getActualTypeArguments()[0] == MemberTeamDto.class
+                && canWrite(mediaType);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected void writeInternal(List<MemberTeamDto> rows, Type type, HttpOutputMessage outputMessage) throws IOException {
+        write(rows, outputMessage.getBody());
+    }
+
+    @Override
+    protected List<MemberTeamDto> readInternal(Class<? extends List<MemberTeamDto>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("읽기는 지원하지 않음", inputMessage);
+    }
+
+    @Override
+    public List<MemberTeamDto> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("읽기는 지원하지 않음", inputMessage);
+    }
+
+    public static void write(List<MemberTeamDto> rows, OutputStream outputStream) throws IOException {
+        var dictionary = new HashMap<String, Integer>();
+        var teamNames = new ArrayList<String>();
+        for (var row : rows) {
+            if (row.getTeamName() != null && !dictionary.containsKey(row.getTeamName())) {
+                dictionary.put(row.getTeamName(), teamNames.size());
+                teamNames.add(row.getTeamName());
+            }
+        }
+
+        var out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeInt(teamNames.size());
+        for (var teamName : teamNames) {
+            out.writeUTF(teamName);
+        }
+        out.writeInt(rows.size());
+        for (var row : rows) {
+            var hasTeam = row.getTeamId() != null;
+            out.writeByte((row.getUsername() != null ? HAS_USERNAME : 0) | (hasTeam ? HAS_TEAM : 0));
+            out.writeLong(row.getMemberId());
+            out.writeInt(row.getAge());
+            if (row.getUsername() != null) {
+                out.writeUTF(row.getUsername());
+            }
+            if (hasTeam) {
+                out.writeLong(row.getTeamId());
+                out.writeInt(row.getTeamName() == null ? -1 : dictionary.get(row.getTeamName()));
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * 클라이언트, 테스트용 디코더
+     */
+    public static List<MemberTeamDto> read(InputStream inputStream) throws IOException {
+        var in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("member-team 바이너리 포맷이 아님");
+        }
+        var teamNames = new String[in.readInt()];
+        for (int i = 0; i < teamNames.length; i++) {
+            teamNames[i] = in.readUTF();
+        }
+        var size = in.readInt();
+        var rows = new ArrayList<MemberTeamDto>(size);
+        for (int i = 0; i < size; i++) {
+            var flags = in.readByte();
+            var row = new MemberTeamDto();
+            row.setMemberId(in.readLong());
+            row.setAge(in.readInt());
+            if ((flags & HAS_USERNAME) != 0) {
+                row.setUsername(in.readUTF());
+            }
+            if ((flags & HAS_TEAM) != 0) {
+                row.setTeamId(in.readLong());
+                var teamIndex = in.readInt();
+                row.setTeamName(teamIndex < 0 ? null : teamNames[teamIndex]);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+}
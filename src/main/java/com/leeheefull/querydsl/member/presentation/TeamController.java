@@ -0,0 +1,50 @@
+package com.leeheefull.querydsl.member.presentation;
+
+import com.leeheefull.querydsl.member.Infrastructure.TeamRepository;
+import com.leeheefull.querydsl.member.Infrastructure.TeamStatisticsRepository;
+import com.leeheefull.querydsl.member.dto.TeamRosterDto;
+import com.leeheefull.querydsl.member.dto.TeamStatDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@RestController
+public class TeamController {
+
+    private final TeamStatisticsRepository teamStatisticsRepository;
+
+    private final TeamRepository teamRepository;
+
+    /**
+     * sort는 id, name만 가능하고 다른 속성이면 400으로 응답함
+     */
+    @GetMapping("/v1/teams/rosters")
+    public Page<TeamRosterDto> teamRosters(Pageable pageable) {
+        try {
+            return teamRepository.findRosters(pageable);
+        } catch (PropertyReferenceException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/v1/teams/statistics")
+    public List<TeamStatDto> teamStatistics() {
+        return teamStatisticsRepository.findAll();
+    }
+
+    @GetMapping("/v1/teams/{teamId}/statistics")
+    public ResponseEntity<TeamStatDto> teamStatistics(@PathVariable Long teamId) {
+        return ResponseEntity.of(teamStatisticsRepository.findByTeamId(teamId));
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.leeheefull.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * primary, replica 역할의 H2 DB 두 개에 각각 자기 이름을 넣어두고 어느 쪽으로 라우팅되는지 확인함
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource primary;
+
+    private DataSource replica;
+
+    @BeforeEach
+    public void before() {
+        primary = h2("primary");
+        replica = h2("replica");
+    }
+
+    @Test
+    public void 읽기_전용_트랜잭션은_replica로_라우팅() {
+        // given
+        var jdbcTemplate = routingJdbcTemplate(Duration.ZERO);
+
+        // when
+        var result = readOnlyTx(jdbcTemplate).execute(status -> node(jdbcTemplate));
+
+        // then
+        assertThat(result).isEqualTo("replica");
+    }
+
+    @Test
+    public void 쓰기_트랜잭션은_primary로_라우팅() {
+        // given
+        var jdbcTemplate = routingJdbcTemplate(Duration.ZERO);
+
+        // when
+        var result = writeTx(jdbcTemplate).execute(status -> node(jdbcTemplate));
+
+        // then
+        assertThat(result).isEqualTo("primary");
+    }
+
+    @Test
+    public void 쓰기_커밋_직후_같은_클라이언트의_읽기는_primary로_고정() {
+        // given
+        var jdbcTemplate = routingJdbcTemplate(Duration.ofMinutes(1));
+        var primaryUntil = new AtomicLong();
+
+        // when
+        request(0, primaryUntil::set, () ->
+                writeTx(jdbcTemplate).execute(status -> jdbcTemplate.update("update node set name = name")));
+        var sameClient = new AtomicReference<String>();
+        request(primaryUntil.get(), until -> {
+        }, () -> sameClient.set(readOnlyTx(jdbcTemplate).execute(status -> node(jdbcTemplate))));
+
+        // then
+        assertThat(primaryUntil.get()).isGreaterThan(System.currentTimeMillis());
+        assertThat(sameClient.get()).isEqualTo("primary");
+    }
+
+    @Test
+    public void 다른_클라이언트나_요청_밖에서는_고정되지_않음() {
+        // given
+        var jdbcTemplate = routingJdbcTemplate(Duration.ofMinutes(1));
+        request(0, until -> {
+        }, () -> writeTx(jdbcTemplate).execute(status -> jdbcTemplate.update("update node set name = name")));
+
+        // when
+        // 같은 스레드(풀에서 재사용)에서 쿠키 없이 들어온 요청
+        var otherClient = new AtomicReference<String>();
+        request(0, until -> {
+        }, () -> otherClient.set(readOnlyTx(jdbcTemplate).execute(status -> node(jdbcTemplate))));
+        var outsideRequest = readOnlyTx(jdbcTemplate).execute(status -> node(jdbcTemplate));
+
+        // then
+        assertThat(otherClient.get()).isEqualTo("replica");
+        assertThat(outsideRequest).isEqualTo("replica");
+    }
+
+    @Test
+    public void 쓰기_커밋_시_쿠키로_고정_종료_시각_전달() throws Exception {
+        // given
+        var jdbcTemplate = routingJdbcTemplate(Duration.ofMinutes(1));
+        var filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+        var response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(new MockHttpServletRequest(), response, (req, res) ->
+                writeTx(jdbcTemplate).execute(status -> jdbcTemplate.update("update node set name = name")));
+        var cookie = response.getCookie(ReadYourWritesFilter.COOKIE);
+        var nextRequest = new MockHttpServletRequest();
+        nextRequest.setCookies(cookie);
+        var result = new AtomicReference<String>();
+        filter.doFilter(nextRequest, new MockHttpServletResponse(), (req, res) ->
+                result.set(readOnlyTx(jdbcTemplate).execute(status -> node(jdbcTemplate))));
+
+        // then
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getMaxAge()).isEqualTo(60);
+        assertThat(result.get()).isEqualTo("primary");
+    }
+
+    private void request(long primaryUntil, LongConsumer onWrite, Runnable work) {
+        ReadWriteRoutingDataSource.beginRequest(primaryUntil, onWrite);
+        try {
+            work.run();
+        } finally {
+            ReadWriteRoutingDataSource.endRequest();
+        }
+    }
+
+    private JdbcTemplate routingJdbcTemplate(Duration stickyWindow) {
+        var routing = new ReadWriteRoutingDataSource(primary, List.of(replica),
+                ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, stickyWindow);
+        routing.afterPropertiesSet();
+        return new JdbcTemplate(new LazyConnectionDataSourceProxy(routing));
+    }
+
+    private TransactionTemplate readOnlyTx(JdbcTemplate jdbcTemplate) {
+        var tx = writeTx(jdbcTemplate);
+        tx.setReadOnly(true);
+        return tx;
+    }
+
+    private TransactionTemplate writeTx(JdbcTemplate jdbcTemplate) {
+        return new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+    }
+
+    private String node(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private DataSource h2(String name) {
+        var dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node (name varchar(20))");
+        jdbcTemplate.execute("delete from node");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.leeheefull.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * <p>실제 설정(RoutingDataSourceConfig + JpaTransactionManager)으로 라우팅되는지 확인함</p>
+ * <p>JpaTransactionManager는 트랜잭션 시작 시 커넥션을 가져오지만, LazyConnectionDataSourceProxy 덕분에
+ * 실제 커넥션은 readOnly 여부가 정해진 뒤 첫 SQL에서 결정되어야 함.</p>
+ */
+@SpringBootTest(properties = {
+        "datasource.routing.enabled=true",
+        "datasource.routing.replicas[0].url=jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1",
+        "datasource.routing.replicas[0].username=sa",
+        "datasource.routing.replicas[0].password=",
+        "datasource.routing.replicas[0].driver-class-name=org.h2.Driver"})
+class RoutingDataSourceConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager em;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        // 트랜잭션 밖이면 primary로 감
+        primary = new JdbcTemplate(dataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1", "sa", ""));
+        for (var jdbcTemplate : new JdbcTemplate[]{primary, replica}) {
+            jdbcTemplate.execute("create table if not exists node (name varchar(20))");
+            jdbcTemplate.execute("delete from node");
+        }
+        primary.update("insert into node (name) values ('primary')");
+        replica.update("insert into node (name) values ('replica')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.execute("drop table node");
+        replica.execute("drop table node");
+    }
+
+    @Test
+    public void JPA_읽기_전용_트랜잭션은_replica로_라우팅() {
+        // given
+        var readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        // when
+        var readOnly = readOnlyTx.execute(status -> node());
+        var write = new TransactionTemplate(transactionManager).execute(status -> node());
+
+        // then
+        assertThat(transactionManager).isInstanceOf(JpaTransactionManager.class);
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+        assertThat(readOnly).isEqualTo("replica");
+        assertThat(write).isEqualTo("primary");
+    }
+
+    private String node() {
+        return (String) em.createNativeQuery("select name from node").getSingleResult();
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.leeheefull.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlStatementCounterTest {
+
+    private static final String SELECT_TEAM = "select team0_.team_id from team team0_ where team0_.team_id=?";
+
+    private final SqlStatementCounter counter = new SqlStatementCounter(2, SqlStatementCounter.Action.FAIL);
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementCounter.reset();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void 트랜잭션이_끝나면_초기화() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        counter.inspect(SELECT_TEAM);
+        counter.inspect(SELECT_TEAM);
+        assertThat(SqlStatementCounter.count()).isEqualTo(2);
+
+        // when
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // then
+        assertThat(SqlStatementCounter.count()).isZero();
+    }
+
+    @Test
+    public void 요청_트랜잭션_밖에서는_세지_않음() {
+        // when
+        counter.inspect(SELECT_TEAM);
+
+        // then
+        assertThat(SqlStatementCounter.count()).isZero();
+    }
+
+    @Test
+    public void insert_시퀀스_반복은_N플러스1이_아님() {
+        // given
+        SqlStatementCounter.startRequest();
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            counter.inspect("/* insert com.leeheefull.querydsl.member.domain.Member */ insert into member (age, team_id, username, member_id) values (?, ?, ?, ?)");
+            counter.inspect("call next value for member_seq");
+        }
+        counter.inspect(SELECT_TEAM);
+        counter.inspect(SELECT_TEAM);
+
+        // then
+        assertThat(SqlStatementCounter.count()).isEqualTo(12);
+        assertThatThrownBy(() -> counter.inspect(SELECT_TEAM))
+                .isInstanceOf(SqlStatementCounter.NPlusOneQueryException.class);
+    }
+
+    @Test
+    public void chunk로_나눈_반복은_N플러스1이_아님() {
+        // given
+        SqlStatementCounter.startRequest();
+
+        // when
+        SqlStatementCounter.chunked(() -> {
+            for (int i = 0; i < 5; i++) {
+                counter.inspect(SELECT_TEAM);
+            }
+        });
+
+        // then
+        assertThat(SqlStatementCounter.count()).isEqualTo(5);
+        assertThat(SqlStatementCounter.maxRepeats()).isZero();
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.config.SqlStatementCounter;
+import com.leeheefull.querydsl.member.domain.Member;
+import com.leeheefull.querydsl.member.domain.Team;
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * chunk 마다 커밋되는지 확인하기 위해 테스트 트랜잭션 없이 실행함
+ */
+@SpringBootTest(properties = {
+        "member.bulk.chunk-size=2",
+        "sql.n-plus-one.repeat-threshold=2",
+        "sql.n-plus-one.action=fail"})
+class MemberBulkTest {
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void 벌크_나이_증가_chunk_마다_커밋() {
+        // given
+        var teamA = teamRepository.save(new Team("teamA"));
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(new Member("member" + i, i * 10, teamA));
+        }
+        var statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        var count = memberRepository.bulkAddAge(new MemberSearchCondition(), 1);
+
+        // then
+        // 2명, 2명, 1명 chunk + 마지막 빈 chunk 확인
+        assertThat(count).isEqualTo(5);
+        assertThat(statistics.getSuccessfulTransactionCount()).isEqualTo(4);
+        assertThat(memberRepository.findAll()).extracting("age").containsExactlyInAnyOrder(11, 21, 31, 41, 51);
+    }
+
+    @Test
+    public void 벌크_팀_해제() {
+        // given
+        var teamA = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamA));
+        memberRepository.save(new Member("member3", 30, teamA));
+
+        // when
+        var count = memberRepository.bulkChangeTeam(new MemberSearchCondition(null, null, 20, null), null);
+
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(memberRepository.findAll())
+                .filteredOn(member -> member.getTeam() == null)
+                .extracting("username")
+                .containsExactlyInAnyOrder("member2", "member3");
+    }
+
+    @Test
+    public void 요청_안의_벌크_chunk는_N플러스1이_아님() {
+        // given
+        var teamA = teamRepository.save(new Team("teamA"));
+        for (int i = 1; i <= 7; i++) {
+            memberRepository.save(new Member("member" + i, i * 10, teamA));
+        }
+
+        // when
+        // 요청 범위에서는 chunk 트랜잭션이 바뀌어도 개수가 이어짐 -> 같은 UPDATE가 4번 실행됨 (threshold 2)
+        SqlStatementCounter.startRequest();
+        try {
+            var count = memberRepository.bulkAddAge(new MemberSearchCondition(), 1);
+
+            // then
+            assertThat(count).isEqualTo(7);
+            assertThat(SqlStatementCounter.count()).isGreaterThan(8);
+        } finally {
+            SqlStatementCounter.reset();
+        }
+    }
+
+}
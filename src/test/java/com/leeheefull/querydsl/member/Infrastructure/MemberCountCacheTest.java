@@ -0,0 +1,47 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCountCacheTest {
+
+    private final MemberCountCache countCache = new MemberCountCache(Duration.ofMinutes(1), 10);
+
+    private final MemberSearchCondition condition = new MemberSearchCondition(null, "teamA", null, null);
+
+    @Test
+    public void 같은_조건은_캐시에서_조회() {
+        // given
+        countCache.get(condition, () -> 10L);
+
+        // when
+        var result = countCache.get(new MemberSearchCondition("", "teamA", null, null), () -> 20L);
+
+        // then
+        assertThat(result).isEqualTo(10);
+        assertThat(countCache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void 카운트_도중_무효화되면_저장하지_않음() {
+        // given
+        // count 쿼리가 실행되는 동안 회원이 변경됨
+        var stale = countCache.get(condition, () -> {
+            countCache.invalidateAll();
+            return 10L;
+        });
+
+        // when
+        var result = countCache.get(condition, () -> 11L);
+
+        // then
+        assertThat(stale).isEqualTo(10);
+        assertThat(result).isEqualTo(11);
+        assertThat(countCache.size()).isEqualTo(1);
+    }
+
+}
@@ -1,14 +1,17 @@
 package com.leeheefull.querydsl.member.Infrastructure;
 
+import com.leeheefull.config.SqlStatementCounter;
 import com.leeheefull.querydsl.member.domain.Member;
 import com.leeheefull.querydsl.member.domain.Team;
 import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import com.leeheefull.querydsl.member.dto.MemberTeamDto;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -86,6 +89,79 @@ class MemberJpaRepositoryTest {
         assertThat(result).extracting("username").containsExactly("member4");
     }
 
+    @Test
+    public void 스트림_검색() {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        // when
+        var result = new ArrayList<MemberTeamDto>();
+        memberJpaRepository.stream(new MemberSearchCondition(), result::add);
+
+        // then
+        assertThat(result).extracting("username").containsExactly("member1", "member2");
+    }
+
+    @Test
+    public void 읽기_전용_조회() {
+        // given
+        var member = getMember();
+        em.flush();
+        em.clear();
+
+        // when
+        var result = memberJpaRepository.findByUsernameReadOnly("member1");
+        result.get(0).setAge(20);
+        em.flush();
+        em.clear();
+
+        // then
+        // 스냅샷이 없어서 변경 감지 대상이 아님
+        assertThat(result).extracting("id").containsExactly(member.getId());
+        assertThat(memberJpaRepository.findById(member.getId()).get().getAge()).isEqualTo(10);
+    }
+
+    @Test
+    public void 쓰기_트랜잭션에서_읽기_전용_조회() {
+        // given
+        // flush 하지 않은 변경
+        em.persist(new Member("member1", 10));
+
+        // when
+        var result = memberJpaRepository.findByUsernameReadOnly("member1");
+
+        // then
+        // 쓰기 트랜잭션에서는 AUTO flush를 유지하므로 같은 트랜잭션의 변경이 보임
+        assertThat(result).extracting("username").containsExactly("member1");
+    }
+
+    @Test
+    public void 지연로딩_N플러스1_SQL_개수() {
+        // given
+        var teamA = new Team("teamA");
+        var teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.flush();
+        em.clear();
+        SqlStatementCounter.reset();
+
+        // when
+        var result = memberJpaRepository.findAll();
+        result.forEach(member -> member.getTeam().getName());
+
+        // then
+        // 회원 조회 1번 + 팀 지연로딩 2번
+        assertThat(SqlStatementCounter.count()).isEqualTo(3);
+        assertThat(SqlStatementCounter.maxRepeats()).isEqualTo(2);
+    }
+
     private Member getMember() {
         var member = new Member("member1", 10);
         memberJpaRepository.save(member);
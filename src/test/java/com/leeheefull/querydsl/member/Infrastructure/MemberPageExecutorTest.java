@@ -0,0 +1,120 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MemberPageExecutorTest {
+
+    private final EntityManagerFactory emf = mock(EntityManagerFactory.class);
+
+    private final EntityManager countEntityManager = mock(EntityManager.class);
+
+    private final Session countSession = mock(Session.class);
+
+    private final MemberPageExecutor pageExecutor;
+
+    MemberPageExecutorTest() {
+        when(emf.createEntityManager()).thenReturn(countEntityManager);
+        when(countEntityManager.unwrap(Session.class)).thenReturn(countSession);
+        pageExecutor = new MemberPageExecutor(emf, true, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pageExecutor.destroy();
+    }
+
+    @Test
+    public void 첫_페이지는_count를_미리_시작하지_않음() {
+        // given
+        var counts = new AtomicInteger();
+
+        // when
+        var page = pageExecutor.getPage(() -> List.of("member1"), PageRequest.of(0, 10), () -> {
+            counts.incrementAndGet();
+            return 100;
+        });
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(counts.get()).isZero();
+        assertThat(pageExecutor.getParallelExecutions()).isZero();
+    }
+
+    @Test
+    public void 마지막_페이지면_실행_중인_count_취소() {
+        // given
+        var countStarted = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        // when
+        var page = pageExecutor.getPage(() -> {
+            await(countStarted);
+            return List.of("member11");
+        }, PageRequest.of(1, 10), () -> {
+            countStarted.countDown();
+            await(release);
+            return 11;
+        });
+        release.countDown();
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(11);
+        assertThat(pageExecutor.getCancelledCounts()).isEqualTo(1);
+        verify(countSession, timeout(1_000)).cancelQuery();
+    }
+
+    @Test
+    public void 스레드_풀이_가득_차면_순차_실행() throws Exception {
+        // given
+        // 스레드 1개, 큐 1개를 count 두 개로 채움
+        var release = new CountDownLatch(1);
+        var running = new CountDownLatch(1);
+        var first = CompletableFuture.runAsync(() -> pageExecutor.getPage(() -> List.of(1, 2), PageRequest.of(1, 2), () -> {
+            running.countDown();
+            await(release);
+            return 10;
+        }));
+        await(running);
+        var second = CompletableFuture.runAsync(() -> pageExecutor.getPage(() -> List.of(3, 4), PageRequest.of(2, 2),
+                () -> 10));
+        while (pageExecutor.queuedCounts() == 0) {
+            Thread.sleep(1);
+        }
+
+        // when
+        var page = pageExecutor.getPage(() -> List.of(5, 6), PageRequest.of(3, 2), () -> 10);
+        release.countDown();
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(pageExecutor.getSequentialFallbacks()).isEqualTo(1);
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.domain.Member;
+import com.leeheefull.querydsl.member.domain.Team;
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import com.leeheefull.querydsl.member.dto.MemberTeamDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 커밋 후 이벤트로 반영되는지 확인하기 위해 테스트 트랜잭션 없이 실행함
+ */
+@SpringBootTest(properties = "member.read-model.enabled=true")
+class MemberReadModelTest {
+
+    @Autowired
+    private MemberReadModel readModel;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    private Team teamA;
+
+    private Team teamB;
+
+    @BeforeEach
+    void setUp() {
+        teamA = teamRepository.save(new Team("teamA"));
+        teamB = teamRepository.save(new Team("teamB"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamA));
+        memberRepository.save(new Member("member3", 30, teamB));
+        memberRepository.save(new Member("member4", 40, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+        readModel.reload();
+    }
+
+    @Test
+    public void 인덱스_검색() {
+        // given
+        readModel.reload();
+
+        // when, then
+        assertThat(readModel.isReady()).isTrue();
+        assertThat(usernames(new MemberSearchCondition("member2", null, null, null)))
+                .containsExactly("member2");
+        assertThat(usernames(new MemberSearchCondition(null, "teamA", null, null)))
+                .containsExactly("member1", "member2");
+        assertThat(usernames(new MemberSearchCondition(null, null, 20, 30)))
+                .containsExactly("member2", "member3");
+        assertThat(usernames(new MemberSearchCondition(null, "teamA", 15, null)))
+                .containsExactly("member2");
+        assertThat(usernames(new MemberSearchCondition()))
+                .containsExactly("member1", "member2", "member3", "member4");
+    }
+
+    @Test
+    public void 건별_변경_반영() {
+        // given
+        readModel.reload();
+
+        // when
+        var member5 = memberRepository.save(new Member("member5", 50, teamB));
+        var member1Id = memberRepository.findAll().stream()
+                .filter(m -> m.getUsername().equals("member1"))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+        transactionTemplate.executeWithoutResult(status -> {
+            var member1 = em.find(Member.class, member1Id);
+            member1.setAge(15);
+            member1.changeTeam(em.getReference(Team.class, teamB.getId()));
+            em.find(Team.class, teamA.getId()).setName("teamC");
+        });
+        memberRepository.deleteById(member5.getId());
+
+        // then
+        assertThat(usernames(new MemberSearchCondition(null, null, 50, null))).isEmpty();
+        assertThat(usernames(new MemberSearchCondition(null, null, 15, 15))).containsExactly("member1");
+        assertThat(usernames(new MemberSearchCondition(null, "teamB", null, null)))
+                .containsExactly("member1", "member3");
+        assertThat(usernames(new MemberSearchCondition(null, "teamC", null, null))).containsExactly("member2");
+        assertThat(usernames(new MemberSearchCondition(null, "teamA", null, null))).isEmpty();
+        assertThat(readModel.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void 재적재_중_커밋된_변경_유지() {
+        // given
+        readModel.reload();
+
+        // when
+        // 스냅샷 조회 후, 교체 전에 커밋됨 -> 스냅샷에는 없음
+        readModel.reload(() -> memberRepository.save(new Member("member5", 50, teamB)));
+
+        // then
+        assertThat(usernames(new MemberSearchCondition("member5", null, null, null)))
+                .containsExactly("member5");
+        assertThat(usernames(new MemberSearchCondition(null, "teamB", null, null)))
+                .containsExactly("member3", "member5");
+        assertThat(readModel.size()).isEqualTo(5);
+    }
+
+    @Test
+    public void 벌크_연산_후_백그라운드_재적재() throws Exception {
+        // given
+        readModel.reload();
+
+        // when
+        memberRepository.bulkAddAge(new MemberSearchCondition(null, "teamA", null, null), 1);
+        var scheduled = readModel.scheduledReload();
+
+        // then
+        // 재적재가 끝날 때까지는 이전 인덱스로 응답함
+        assertThat(readModel.isReady()).isTrue();
+        scheduled.get(5, TimeUnit.SECONDS);
+        assertThat(readModel.getStaleness()).isZero();
+        assertThat(usernames(new MemberSearchCondition(null, null, 11, 21)))
+                .containsExactly("member1", "member2");
+    }
+
+    private List<String> usernames(MemberSearchCondition condition) {
+        return readModel.search(condition).stream()
+                .map(MemberTeamDto::getUsername)
+                .collect(Collectors.toList());
+    }
+
+}
@@ -2,7 +2,11 @@ package com.leeheefull.querydsl.member.Infrastructure;
 
 import com.leeheefull.querydsl.member.domain.Member;
 import com.leeheefull.querydsl.member.domain.Team;
+import com.leeheefull.querydsl.member.dto.MemberCountStrategy;
 import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import com.leeheefull.querydsl.member.dto.MemberTeamDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -10,8 +14,11 @@ import org.springframework.data.domain.PageRequest;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @Transactional
@@ -23,6 +30,9 @@ class MemberRepositoryTest {
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     public void 회원_아이디로_조회() {
         // given
@@ -115,6 +125,319 @@ class MemberRepositoryTest {
         assertThat(result.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
     }
 
+    @Test
+    public void 페이지_검색_개수_캐시_무효화() {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        var condition = new MemberSearchCondition();
+        var pageRequest = PageRequest.of(0, 1);
+        var before = memberRepository.searchPage(condition, pageRequest);
+
+        // when
+        var member3 = new Member("member3", 30, teamA);
+        em.persist(member3);
+        em.flush();
+        var afterInsert = memberRepository.searchPage(condition, pageRequest);
+
+        em.remove(member3);
+        em.flush();
+        var afterDelete = memberRepository.searchPage(condition, pageRequest);
+
+        // then
+        assertThat(before.getTotalElements()).isEqualTo(2);
+        assertThat(afterInsert.getTotalElements()).isEqualTo(3);
+        assertThat(afterDelete.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    public void 페이지_검색_개수_상한() {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamA));
+
+        // when (테스트 설정의 상한은 2)
+        var condition = new MemberSearchCondition();
+        var bounded = memberRepository.searchPage(condition, PageRequest.of(0, 1), MemberCountStrategy.BOUNDED);
+        var exact = memberRepository.searchPage(condition, PageRequest.of(0, 1), MemberCountStrategy.EXACT);
+
+        // then
+        assertThat(bounded.getTotalElements()).isEqualTo(2);
+        assertThat(bounded.isTotalExact()).isFalse();
+        assertThat(exact.getTotalElements()).isEqualTo(3);
+        assertThat(exact.isTotalExact()).isTrue();
+    }
+
+    @Test
+    public void 페이지_검색_개수_추정() {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamA));
+        em.persist(new Member("member4", 40, teamA));
+
+        // when (테스트 설정은 id 1개짜리 구간 2개를 표본으로 셈)
+        var condition = new MemberSearchCondition();
+        var result = memberRepository.searchPage(condition, PageRequest.of(0, 1), MemberCountStrategy.ESTIMATED);
+
+        // then
+        assertThat(result.getContent()).extracting("username").containsExactly("member1");
+        assertThat(result.getTotalElements()).isEqualTo(4);
+        assertThat(result.isTotalExact()).isFalse();
+    }
+
+    @Test
+    public void 페이지_검색_개수_상한_이후_페이지() {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 1; i <= 5; i++) {
+            em.persist(new Member("member" + i, i * 10, teamA));
+        }
+
+        // when (테스트 설정의 상한은 2)
+        var condition = new MemberSearchCondition();
+        var pastBound = memberRepository.searchPage(condition, PageRequest.of(1, 2), MemberCountStrategy.BOUNDED);
+        var last = memberRepository.searchPage(condition, PageRequest.of(2, 2), MemberCountStrategy.BOUNDED);
+
+        // then
+        assertThat(pastBound.getContent()).extracting("username").containsExactly("member3", "member4");
+        assertThat(pastBound.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting("username").containsExactly("member5");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.getTotalElements()).isEqualTo(5);
+        assertThat(last.isTotalExact()).isTrue();
+    }
+
+    @Test
+    public void 페이지_검색_개수_추정_선택적_조건() {
+        // given
+        var teamA = new Team("teamA");
+        var teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        // 표본 구간(첫 id, 마지막 id)에는 teamB 회원이 없음 -> 추정치는 0
+        for (int i = 1; i <= 10; i++) {
+            em.persist(new Member("member" + i, i * 10, i >= 4 && i <= 6 ? teamB : teamA));
+        }
+
+        // when
+        var condition = new MemberSearchCondition(null, "teamB", null, null);
+        var first = memberRepository.searchPage(condition, PageRequest.of(0, 2), MemberCountStrategy.ESTIMATED);
+        var last = memberRepository.searchPage(condition, PageRequest.of(1, 2), MemberCountStrategy.ESTIMATED);
+
+        // then
+        assertThat(first.getContent()).extracting("username").containsExactly("member4", "member5");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting("username").containsExactly("member6");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.getTotalElements()).isEqualTo(3);
+        assertThat(last.isTotalExact()).isTrue();
+    }
+
+    @Test
+    public void 검색_결과_수정_불가() {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+
+        // when
+        var result = memberRepository.search(new MemberSearchCondition());
+
+        // then
+        // 동시에 들어온 같은 검색은 같은 List를 공유함
+        assertThatThrownBy(() -> result.add(new MemberTeamDto(2L, "member2", 20, null, null)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void 슬라이스_검색() {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamA));
+
+        // when
+        var condition = new MemberSearchCondition();
+        var first = memberRepository.searchSlice(condition, PageRequest.of(0, 2));
+        var last = memberRepository.searchSlice(condition, PageRequest.of(1, 2));
+
+        // then
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting("username").containsExactly("member3");
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    public void 커서_검색() {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+
+        var member1 = new Member("member1", 10, teamA);
+        var member2 = new Member("member2", 20, teamA);
+        var member3 = new Member("member3", 30, teamA);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+
+        // when
+        var condition = new MemberSearchCondition();
+        var first = memberRepository.searchAfter(condition, null, 2);
+        var second = memberRepository.searchAfter(condition, first.get(1).getMemberId(), 2);
+
+        // then
+        assertThat(first).extracting("username").containsExactly("member1", "member2");
+        assertThat(second).extracting("username").containsExactly("member3");
+    }
+
+    @Test
+    public void 대량_저장() {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.flush();
+        var statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        // 회원을 미리 만들어 두지 않고 하나씩 넘김
+        Iterable<Member> members = () -> IntStream.range(0, 2_500)
+                .mapToObj(i -> new Member("member" + i, i % 100, teamA))
+                .iterator();
+        var result = memberRepository.saveAllBatched(members);
+
+        // then
+        assertThat(result.getRows()).isEqualTo(2_500);
+        assertThat(memberRepository.count()).isEqualTo(2_500);
+        // 팀의 members 컬렉션에 저장한 회원이 쌓이지 않음
+        assertThat(teamA.getMembers()).isEmpty();
+        // insert는 batch_size(100) 단위로 묶이고 id는 시퀀스 한 번에 100개씩 확보함
+        // (batch 없이 실행하면 insert 마다 PreparedStatement를 새로 만듦)
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(2_500);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(100);
+    }
+
+    @Test
+    public void 벌크_나이_증가() {
+        // given
+        var teamA = new Team("teamA");
+        var teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        var member1 = new Member("member1", 10, teamA);
+        var member2 = new Member("member2", 20, teamA);
+        var member3 = new Member("member3", 30, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+
+        // when
+        var condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        var count = memberRepository.bulkAddAge(condition, 1);
+
+        // then
+        // 영속성 컨텍스트가 비워졌으므로 DB 값으로 다시 조회됨
+        assertThat(count).isEqualTo(2);
+        assertThat(memberRepository.findById(member1.getId()).get().getAge()).isEqualTo(11);
+        assertThat(memberRepository.findById(member3.getId()).get().getAge()).isEqualTo(30);
+    }
+
+    @Test
+    public void 벌크_삭제() {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        // when
+        var condition = new MemberSearchCondition();
+        condition.setAgeGoe(15);
+        var count = memberRepository.bulkDelete(condition);
+
+        // then
+        assertThat(count).isEqualTo(1);
+        assertThat(memberRepository.findAll()).extracting("username").containsExactly("member1");
+    }
+
+    @Test
+    public void 여러_조건_한번에_검색() {
+        // given
+        var teamA = new Team("teamA");
+        var teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        // when
+        var conditions = List.of(
+                new MemberSearchCondition("member1", null, null, null),
+                new MemberSearchCondition("member3", "teamA", null, null),
+                new MemberSearchCondition(null, "teamB", 35, null),
+                new MemberSearchCondition("", null, null, 15));
+        var result = memberRepository.searchBatch(conditions);
+
+        // then
+        assertThat(result).hasSize(4);
+        assertThat(result.get(0)).extracting("username").containsExactly("member1");
+        assertThat(result.get(1)).isEmpty();
+        assertThat(result.get(2)).extracting("username").containsExactly("member4");
+        assertThat(result.get(3)).extracting("username").containsExactly("member1");
+    }
+
+    @Test
+    public void 여러_조건_나이_조건_같이_조회() {
+        // given
+        var teamA = new Team("teamA");
+        var teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        var rows = meterRegistry.summary(QueryMetrics.ROWS, "name", "member.searchBatch.teamName");
+        var queries = rows.count();
+        var fetched = rows.totalAmount();
+
+        // when
+        var conditions = List.of(
+                new MemberSearchCondition(null, "teamA", 15, null),
+                new MemberSearchCondition(null, "teamB", 15, null));
+        var result = memberRepository.searchBatch(conditions);
+
+        // then
+        // 나이 조건이 같으므로 IN 쿼리 하나로 조회하고, 나이 조건에 맞지 않는 member1은 가져오지 않음
+        assertThat(result.get(0)).extracting("username").containsExactly("member2");
+        assertThat(result.get(1)).extracting("username").containsExactlyInAnyOrder("member3", "member4");
+        assertThat(rows.count() - queries).isEqualTo(1);
+        assertThat(rows.totalAmount() - fetched).isEqualTo(3);
+    }
+
     private Member getMember() {
         var member = new Member("member1", 10);
         memberRepository.save(member);
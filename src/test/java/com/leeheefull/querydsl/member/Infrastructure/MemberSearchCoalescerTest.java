@@ -0,0 +1,82 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class MemberSearchCoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MemberSearchCoalescer coalescer = new MemberSearchCoalescer(
+            mock(MemberChangeEventListener.class), registry, true, Duration.ofSeconds(5));
+
+    private final MemberSearchCondition condition = new MemberSearchCondition(null, "teamA", null, null);
+
+    @Test
+    public void 동시에_들어온_같은_검색_합치기() throws Exception {
+        // given
+        var executions = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        var leader = CompletableFuture.supplyAsync(() -> coalescer.execute("member.search", condition, null, () -> {
+            executions.incrementAndGet();
+            await(release);
+            return List.of("member1");
+        }));
+        while (coalescer.getInFlight() == 0) {
+            Thread.sleep(1);
+        }
+
+        // when
+        var follower = CompletableFuture.supplyAsync(() -> coalescer.execute("member.search",
+                new MemberSearchCondition("", "teamA", null, null), null, () -> {
+                    executions.incrementAndGet();
+                    return List.of("member2");
+                }));
+        while (registry.counter("member.search.coalescing", "result", "follower").count() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // then
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(leader.get(5, TimeUnit.SECONDS));
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(coalescer.getCoalescingRatio()).isEqualTo(0.5);
+        assertThat(coalescer.getInFlight()).isZero();
+    }
+
+    @Test
+    public void 실패는_이후_요청에_남지_않음() {
+        // given
+        assertThatThrownBy(() -> coalescer.execute("member.search", condition, null, () -> {
+            throw new IllegalStateException("DB 오류");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // when
+        var result = coalescer.execute("member.search", condition, null, () -> List.of("member1"));
+
+        // then
+        assertThat(result).containsExactly("member1");
+        assertThat(coalescer.getInFlight()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.domain.Member;
+import com.leeheefull.querydsl.member.domain.Team;
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.leeheefull.querydsl.member.domain.QMember.member;
+import static com.leeheefull.querydsl.member.domain.QTeam.team;
+import static com.leeheefull.querydsl.member.Infrastructure.MemberProjections.MEMBER_TEAM;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class MemberSearchQueryTemplatesTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JPAQueryFactory queryFactory;
+
+    @Autowired
+    private MemberSearchQueryTemplates queryTemplates;
+
+    @BeforeEach
+    void setUp() {
+        var teamA = new Team("teamA");
+        var teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member2", 40, teamB));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 25, null));
+    }
+
+    /**
+     * 조건 형태(shape) 16가지: bit 0 username, 1 teamName, 2 ageGoe, 3 ageLoe
+     */
+    static Stream<MemberSearchCondition> shapes() {
+        return IntStream.range(0, 16).mapToObj(shape -> new MemberSearchCondition(
+                (shape & 1) != 0 ? "member2" : null,
+                (shape & 2) != 0 ? "teamA" : null,
+                (shape & 4) != 0 ? 15 : null,
+                (shape & 8) != 0 ? 35 : null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("shapes")
+    public void 템플릿_동적_쿼리와_같은_결과(MemberSearchCondition condition) {
+        // given
+        var expected = queryFactory
+                .select(MEMBER_TEAM)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        condition.getAgeGoe() == null ? null : member.age.goe(condition.getAgeGoe()),
+                        condition.getAgeLoe() == null ? null : member.age.loe(condition.getAgeLoe()))
+                .fetch();
+
+        // when
+        var result = queryTemplates.search(condition);
+        var count = queryTemplates.count(condition);
+
+        // then
+        assertThat(result).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(count).isEqualTo(expected.size());
+    }
+
+    @Test
+    public void int_범위를_넘는_offset() {
+        assertThatThrownBy(() -> queryTemplates.search(new MemberSearchCondition(), Integer.MAX_VALUE + 1L, 10))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    private static BooleanExpression usernameEq(String username) {
+        return username == null ? null : member.username.eq(username);
+    }
+
+    private static BooleanExpression teamNameEq(String teamName) {
+        return teamName == null ? null : team.name.eq(teamName);
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.dto.MemberSearchCondition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class QueryMetricsEndpointTest {
+
+    @Autowired
+    private QueryMetricsEndpoint queryMetricsEndpoint;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void 쿼리_이름별_통계() {
+        // given
+        memberRepository.search(new MemberSearchCondition());
+
+        // when
+        var result = queryMetricsEndpoint.queries();
+
+        // then
+        var queries = (Map<String, Map<String, Object>>) result.get("queries");
+        assertThat(queries).containsKey("member.search");
+        assertThat((Long) queries.get("member.search").get("count")).isPositive();
+        assertThat(result).containsKeys("secondLevelCache", "readModel", "coalescing");
+    }
+
+}
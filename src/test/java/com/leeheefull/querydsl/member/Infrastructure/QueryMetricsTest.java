@@ -0,0 +1,32 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final QueryMetrics queryMetrics = new QueryMetrics(registry);
+
+    @Test
+    public void 쿼리_이름별_지연시간_row수_기록() {
+        // when
+        queryMetrics.list("member.search", () -> List.of("member1", "member2"));
+        queryMetrics.list("member.search", () -> List.of("member3"));
+        queryMetrics.count("member.searchPage.count", () -> 3L);
+
+        // then
+        var timer = registry.find(QueryMetrics.LATENCY).tag("name", "member.search").timer();
+        var rows = registry.find(QueryMetrics.ROWS).tag("name", "member.search").summary();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(rows.totalAmount()).isEqualTo(3);
+        assertThat(registry.find(QueryMetrics.LATENCY).tag("name", "member.searchPage.count").timer().count())
+                .isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamAgeStatsTest {
+
+    @Test
+    public void 회원_추가_삭제_집계() {
+        // given
+        var stats = new TeamAgeStats(1L, "teamA");
+        stats.add(10);
+        stats.add(20);
+        stats.add(30);
+
+        // when
+        stats.remove(30);
+        var result = stats.toDto();
+
+        // then
+        assertThat(result.getCount()).isEqualTo(2);
+        assertThat(result.getAgeSum()).isEqualTo(30);
+        assertThat(result.getAgeMin()).isEqualTo(10);
+        assertThat(result.getAgeMax()).isEqualTo(20);
+        assertThat(result.getAgeAvg()).isEqualTo(15);
+    }
+
+    @Test
+    public void 회원이_없는_팀() {
+        // given
+        var stats = new TeamAgeStats(1L, "teamA");
+        stats.add(10);
+
+        // when
+        stats.remove(10);
+        var result = stats.toDto();
+
+        // then
+        assertThat(result.getCount()).isZero();
+        assertThat(result.getAgeAvg()).isNull();
+    }
+
+    @Test
+    public void 집계에_없는_나이는_빼지_않음() {
+        // given
+        var stats = new TeamAgeStats(1L, "teamA");
+        stats.add(10);
+
+        // when
+        var removed = stats.remove(20);
+        var result = stats.toDto();
+
+        // then
+        assertThat(removed).isFalse();
+        assertThat(result.getCount()).isEqualTo(1);
+        assertThat(result.getAgeSum()).isEqualTo(10);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.domain.Team;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 2차 캐시는 커밋된 데이터만 공유하므로 테스트 트랜잭션 없이 실행함
+ */
+@SpringBootTest
+class TeamCacheTest {
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    private Team team;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        team = teamRepository.save(new Team("cachedTeam"));
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        teamRepository.deleteById(team.getId());
+    }
+
+    @Test
+    public void 팀_이름_조회_쿼리_캐시_적중() {
+        // when
+        // 각각 별도의 트랜잭션(세션)에서 조회함
+        var first = teamRepository.findByName("cachedTeam");
+        var second = teamRepository.findByName("cachedTeam");
+
+        // then
+        // 두 번째 조회는 쿼리 캐시에서 id를, 2차 캐시에서 엔티티를 꺼냄
+        assertThat(first).get().extracting(Team::getId).isEqualTo(team.getId());
+        assertThat(second).get().extracting(Team::getId).isEqualTo(team.getId());
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    public void 팀_아이디_조회_2차_캐시_적중() {
+        // when
+        teamRepository.findById(team.getId());
+
+        // then
+        // save 후 커밋될 때 2차 캐시에 들어감
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.config.SqlStatementCounter;
+import com.leeheefull.querydsl.member.domain.Member;
+import com.leeheefull.querydsl.member.domain.Team;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class TeamRepositoryTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Test
+    public void 팀_회원_목록_페이지_조회() {
+        // given
+        // 다른 테스트가 커밋한 팀이 남아 있어도 결과가 같도록 기존 팀 수를 세고, 새로 만든 팀이 앞에 오게 id 역순으로 조회함
+        var existingTeams = teamRepository.count();
+        var teamA = new Team("teamA");
+        var teamB = new Team("teamB");
+        var teamC = new Team("teamC");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(teamC);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamC));
+        em.flush();
+        em.clear();
+        SqlStatementCounter.reset();
+
+        // when
+        var result = teamRepository.findRosters(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        // then
+        // 팀 1번 + 회원 1번 + count 1번
+        assertThat(SqlStatementCounter.count()).isEqualTo(3);
+        assertThat(result.getTotalElements()).isEqualTo(existingTeams + 3);
+        assertThat(result.getContent()).extracting("teamName").containsExactly("teamC", "teamB");
+        assertThat(result.getContent().get(0).getMembers()).extracting("name").containsExactly("member4");
+        assertThat(result.getContent().get(1).getMembers()).extracting("name").containsExactly("member3");
+    }
+
+    @Test
+    public void 팀_회원_목록_정렬() {
+        // given
+        em.persist(new Team("teamB"));
+        em.persist(new Team("teamC"));
+        em.persist(new Team("teamA"));
+
+        // when
+        var result = teamRepository.findRosters(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "name")));
+
+        // then
+        assertThat(result.getContent()).extracting("teamName").containsExactly("teamC", "teamB");
+    }
+
+    @Test
+    public void 팀_회원_목록_지원하지_않는_정렬() {
+        assertThatThrownBy(() -> teamRepository.findRosters(PageRequest.of(0, 2, Sort.by("members"))))
+                .isInstanceOf(PropertyReferenceException.class);
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.leeheefull.querydsl.member.Infrastructure;
+
+import com.leeheefull.querydsl.member.domain.Member;
+import com.leeheefull.querydsl.member.domain.Team;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 커밋 후 이벤트로 반영되는지 확인하기 위해 테스트 트랜잭션 없이 실행함
+ */
+@SpringBootTest
+class TeamStatisticsRepositoryTest {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamStatisticsRepository teamStatisticsRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+        teamStatisticsRepository.reload();
+    }
+
+    @Test
+    public void 다시_집계하는_중_커밋된_변경() {
+        // given
+        var teamA = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        var inserted = new boolean[1];
+
+        // when
+        // 첫 집계 쿼리 후, 교체 전에 커밋됨 -> 버리고 다시 집계함
+        teamStatisticsRepository.reload(() -> {
+            if (!inserted[0]) {
+                inserted[0] = true;
+                memberRepository.save(new Member("member2", 20, teamA));
+            }
+        });
+
+        // then
+        var stat = teamStatisticsRepository.findByTeamId(teamA.getId()).orElseThrow();
+        assertThat(stat.getCount()).isEqualTo(2);
+        assertThat(stat.getAgeSum()).isEqualTo(30);
+        assertThat(stat.getAgeMin()).isEqualTo(10);
+        assertThat(stat.getAgeMax()).isEqualTo(20);
+    }
+
+    @Test
+    public void 커밋_결과를_모르는_변경이_있으면_이전_집계_유지() throws Exception {
+        // given
+        var teamA = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        var flushed = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var writer = Executors.newSingleThreadExecutor();
+        var commit = writer.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("member2", 20, em.getReference(Team.class, teamA.getId())));
+            em.flush();
+            flushed.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        flushed.await(5, TimeUnit.SECONDS);
+
+        // when
+        // member2가 집계 쿼리 전에 커밋될지, 교체 전에 이벤트가 올지 알 수 없으므로 교체하지 않음
+        var reloaded = teamStatisticsRepository.reload(() -> {
+        });
+        var before = teamStatisticsRepository.findByTeamId(teamA.getId()).orElseThrow();
+        release.countDown();
+        commit.get(5, TimeUnit.SECONDS);
+        writer.shutdown();
+        // 진행 중인 변경이 끝나면 백그라운드에서 다시 집계함
+        teamStatisticsRepository.scheduledReload().get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(reloaded).isFalse();
+        assertThat(before.getCount()).isEqualTo(1);
+        var stat = teamStatisticsRepository.findByTeamId(teamA.getId()).orElseThrow();
+        assertThat(stat.getCount()).isEqualTo(2);
+        assertThat(stat.getAgeSum()).isEqualTo(30);
+    }
+
+    @Test
+    public void 이전_상태_없는_수정은_다시_집계() throws Exception {
+        // given
+        var teamA = teamRepository.save(new Team("teamA"));
+        var member1 = memberRepository.save(new Member("member1", 10, teamA));
+        member1.setAge(15);
+
+        // when
+        // 분리된 엔티티를 update 하면 PostUpdateEvent.getOldState()가 null
+        transactionTemplate.executeWithoutResult(status -> em.unwrap(Session.class).update(member1));
+        teamStatisticsRepository.scheduledReload().get(5, TimeUnit.SECONDS);
+
+        // then
+        var stat = teamStatisticsRepository.findByTeamId(teamA.getId()).orElseThrow();
+        assertThat(stat.getCount()).isEqualTo(1);
+        assertThat(stat.getAgeSum()).isEqualTo(15);
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.leeheefull.querydsl.member.presentation;
+
+import com.leeheefull.querydsl.member.Infrastructure.MemberJpaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "member.async.pool-size=1",
+        "member.async.queue-capacity=1",
+        "member.async.timeout=200ms"
+})
+@AutoConfigureMockMvc
+class MemberControllerAsyncTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @MockBean
+    private MemberJpaRepository memberJpaRepository;
+
+    @Test
+    public void 검색_스레드_풀이_가득_차면_503_시간_초과면_504() throws Exception {
+        // given
+        // 검색 스레드 1개와 큐 1칸을 오래 걸리는 검색으로 채움
+        var release = new CountDownLatch(1);
+        given(memberJpaRepository.search(any())).willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        try {
+            var running = mockMvc.perform(get("/v1/members/async"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(get("/v1/members/async"))
+                    .andExpect(request().asyncStarted());
+
+            // when, then
+            mockMvc.perform(get("/v1/members/async"))
+                    .andExpect(status().isServiceUnavailable());
+            mockMvc.perform(asyncDispatch(running))
+                    .andExpect(status().isGatewayTimeout());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void 기본_applicationTaskExecutor_유지() {
+        assertThat(context.containsBean("applicationTaskExecutor")).isTrue();
+        assertThat(context.containsBean("memberSearchExecutor")).isTrue();
+    }
+
+}
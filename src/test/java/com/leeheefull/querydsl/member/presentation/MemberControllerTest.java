@@ -0,0 +1,114 @@
+package com.leeheefull.querydsl.member.presentation;
+
+import com.leeheefull.querydsl.member.domain.Member;
+import com.leeheefull.querydsl.member.domain.Team;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"member.cursor.max-size=2", "member.batch-search.max-conditions=2"})
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    public void 커서_검색_최대_크기() throws Exception {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamA));
+
+        // when, then
+        mockMvc.perform(get("/v2/members/cursor").param("size", "100000000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    @Test
+    public void 커서_검색_마지막_페이지가_꽉_찬_경우() throws Exception {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        // when, then
+        mockMvc.perform(get("/v2/members/cursor").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    public void NDJSON_스트림() throws Exception {
+        // given
+        var teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        // when
+        var body = mockMvc.perform(get("/v1/members/stream").param("teamName", "teamA"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        // row 하나에 한 줄, 마지막 row 뒤에도 줄바꿈
+        assertThat(body).endsWith("\n");
+        assertThat(body.split("\n"))
+                .hasSize(2)
+                .anyMatch(line -> line.contains("\"username\":\"member1\""))
+                .anyMatch(line -> line.contains("\"username\":\"member2\""));
+    }
+
+    @Test
+    public void NDJSON_스트림_결과_없음() throws Exception {
+        mockMvc.perform(get("/v1/members/stream").param("username", "nobody"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void 일괄_검색_최대_조건_수() throws Exception {
+        mockMvc.perform(post("/v1/members/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{}, {}, {}]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void 페이지_offset_범위_초과() throws Exception {
+        mockMvc.perform(get("/v2/members/slice").param("page", "2000000000").param("size", "100"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void 잘못된_커서() throws Exception {
+        mockMvc.perform(get("/v2/members/cursor").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+}
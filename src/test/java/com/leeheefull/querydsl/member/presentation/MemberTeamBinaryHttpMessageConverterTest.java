@@ -0,0 +1,31 @@
+package com.leeheefull.querydsl.member.presentation;
+
+import com.leeheefull.querydsl.member.dto.MemberTeamDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberTeamBinaryHttpMessageConverterTest {
+
+    @Test
+    public void 바이너리_포맷_쓰고_읽기() throws Exception {
+        // given
+        var rows = List.of(
+                new MemberTeamDto(1L, "member1", 10, 1L, "teamA"),
+                new MemberTeamDto(2L, "member2", 20, 1L, "teamA"),
+                new MemberTeamDto(3L, null, 30, null, null));
+        var out = new ByteArrayOutputStream();
+
+        // when
+        MemberTeamBinaryHttpMessageConverter.write(rows, out);
+        var result = MemberTeamBinaryHttpMessageConverter.read(new ByteArrayInputStream(out.toByteArray()));
+
+        // then
+        assertThat(result).isEqualTo(rows);
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.leeheefull.querydsl.member.presentation;
+
+import com.leeheefull.querydsl.member.Infrastructure.MemberRepository;
+import com.leeheefull.querydsl.member.Infrastructure.TeamRepository;
+import com.leeheefull.querydsl.member.Infrastructure.TeamStatisticsRepository;
+import com.leeheefull.querydsl.member.domain.Member;
+import com.leeheefull.querydsl.member.domain.Team;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import static com.leeheefull.querydsl.member.domain.QMember.member;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 커밋 후 이벤트로 반영되는지 확인하기 위해 테스트 트랜잭션 없이 실행함
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TeamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamStatisticsRepository teamStatisticsRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JPAQueryFactory queryFactory;
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+        teamStatisticsRepository.reload();
+    }
+
+    @Test
+    public void 팀_통계_증분_반영() throws Exception {
+        // given
+        var teamA = teamRepository.save(new Team("teamA"));
+        var teamB = teamRepository.save(new Team("teamB"));
+        var member1 = memberRepository.save(new Member("member1", 10, teamA));
+        var member2 = memberRepository.save(new Member("member2", 20, teamA));
+        var member3 = memberRepository.save(new Member("member3", 30, teamB));
+
+        // when
+        memberRepository.save(new Member("member4", 40, teamA));
+        transactionTemplate.executeWithoutResult(status -> {
+            em.find(Member.class, member1.getId()).setAge(15);
+            em.find(Member.class, member2.getId()).changeTeam(em.getReference(Team.class, teamB.getId()));
+        });
+        memberRepository.deleteById(member3.getId());
+
+        // then
+        expectSameAsGroupBy(teamA.getId());
+        expectSameAsGroupBy(teamB.getId());
+    }
+
+    private void expectSameAsGroupBy(Long teamId) throws Exception {
+        var expected = queryFactory
+                .select(member.count(), member.age.sum(), member.age.min(), member.age.max())
+                .from(member)
+                .where(member.team.id.eq(teamId))
+                .fetchOne();
+        var count = expected.get(member.count());
+        var ageSum = expected.get(member.age.sum());
+
+        mockMvc.perform(get("/v1/teams/{teamId}/statistics", teamId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(count))
+                .andExpect(jsonPath("$.ageSum").value(ageSum))
+                .andExpect(jsonPath("$.ageMin").value(expected.get(member.age.min())))
+                .andExpect(jsonPath("$.ageMax").value(expected.get(member.age.max())))
+                .andExpect(jsonPath("$.ageAvg").value((double) ageSum / count));
+    }
+
+}